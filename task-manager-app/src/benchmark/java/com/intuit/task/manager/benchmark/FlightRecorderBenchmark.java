@@ -0,0 +1,89 @@
+package com.intuit.task.manager.benchmark;
+
+import com.intuit.task.manager.diagnostics.*;
+import jdk.jfr.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the overhead of the custom JFR events on a unit of work comparable to an in-memory admission
+ * decision: without a recording (the events are disabled) and with the jfr/task-manager.jfc profile.
+ *
+ * Run: mvn -P benchmark test-compile exec:exec -Dbenchmark=FlightRecorderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightRecorderBenchmark {
+
+    /**
+     * The amount of work wrapped by an event, in JMH tokens
+     */
+    private static final int WORK = 100;
+
+    @Param({"off", "on"})
+    private String recording;
+
+    private Recording active;
+
+    @Setup
+    public void setup() throws Exception {
+        if (recording.equals("off")) return;
+        try (Reader reader = new InputStreamReader(
+                getClass().getResourceAsStream("/jfr/task-manager.jfc"), StandardCharsets.UTF_8)) {
+            active = new Recording(Configuration.create(reader));
+        }
+        active.setToDisk(true);
+        active.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (active != null) active.close();
+    }
+
+    @Benchmark
+    public void baseline() {
+        Blackhole.consumeCPU(WORK);
+    }
+
+    @Benchmark
+    public void admissionEvent() {
+        AdmissionEvent event = new AdmissionEvent();
+        event.begin();
+        Blackhole.consumeCPU(WORK);
+        event.setAccepted(true);
+        event.setPid(42);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setPolicy("FIFO");
+            event.setPriority("HIGH");
+            event.commit();
+        }
+    }
+
+    @Benchmark
+    public void repositoryEvent() {
+        // The aspect skips the event entirely when it is disabled
+        RepositoryEvent event = new RepositoryEvent();
+        if (!event.isEnabled()) {
+            Blackhole.consumeCPU(WORK);
+            return;
+        }
+        event.begin();
+        Blackhole.consumeCPU(WORK);
+        event.setRows(1);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setMethod("getByPid");
+            event.commit();
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.intuit.task.manager.benchmark;
+
+import com.intuit.task.manager.collections.*;
+import org.openjdk.jmh.annotations.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the primitive pid collections with the boxed ones on the operations of the kill path:
+ * de-duplicating the requested IDs and looking up the loaded processes by pid.
+ *
+ * The allocation difference is reported by the GC profiler:
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark="PidCollectionsBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PidCollectionsBenchmark {
+
+    @Param({"1000", "100000"})
+    private int size;
+
+    private long[] pids;
+    private Object[] processes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        pids = new long[size];
+        processes = new Object[size];
+        for (int i = 0; i < size; i++) {
+            // Pids of a long-running instance, with some repeated IDs in the request
+            pids[i] = 1_000_000L + random.nextInt(size * 2);
+            processes[i] = new Object();
+        }
+    }
+
+    @Benchmark
+    public int deduplicateBoxed() {
+        Set<Long> unique = new HashSet<>();
+        List<Long> result = new ArrayList<>();
+        for (long pid : pids) {
+            if (unique.add(pid)) result.add(pid);
+        }
+        return result.size();
+    }
+
+    @Benchmark
+    public int deduplicatePrimitive() {
+        LongHashSet unique = new LongHashSet(pids.length);
+        LongArrayList result = new LongArrayList(pids.length);
+        for (long pid : pids) {
+            if (unique.add(pid)) result.add(pid);
+        }
+        return result.size();
+    }
+
+    @Benchmark
+    public int lookupBoxed() {
+        Map<Long, Object> map = new HashMap<>();
+        for (int i = 0; i < size; i++) map.put(pids[i], processes[i]);
+        int found = 0;
+        for (long pid : pids) {
+            if (map.get(pid) != null) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int lookupPrimitive() {
+        LongObjectHashMap<Object> map = new LongObjectHashMap<>(size);
+        for (int i = 0; i < size; i++) map.put(pids[i], processes[i]);
+        int found = 0;
+        for (long pid : pids) {
+            if (map.get(pid) != null) found++;
+        }
+        return found;
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.intuit.task.manager.benchmark;
+
+import com.intuit.task.manager.core.*;
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.entities.Process;
+import com.intuit.task.manager.entities.Title;
+import org.openjdk.jmh.annotations.*;
+import java.lang.management.*;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the layouts of a full task manager with a very large capacity under FIFO churn:
+ * the Process entities, the ProcessRecord objects of InMemoryProcessStore and the off-heap columns
+ * of OffHeapProcessStore, with and without the title dictionary. The entity-dictionary layout shares the titles
+ * the way the entities loaded through the TitleDictionary do.
+ *
+ * The unique titles are the worst case of the dictionary. The templates are a typical workload: most titles
+ * come from a few dozen templates (nightly-sync, reindex-shard-N, ...) and a small share are one-off titles.
+ *
+ * The retained bytes per process (heap and off-heap) are printed after the store is filled,
+ * the allocation rate and the GC pauses are reported by the GC profiler:
+ * mvn -P benchmark test-compile exec:exec -Dbenchmark="ProcessStoreBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ProcessStoreBenchmark {
+
+    private static final PriorityType[] PRIORITIES = PriorityType.values();
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"entity", "entity-dictionary", "record", "record-interned", "offheap", "offheap-dictionary"})
+    private String layout;
+
+    @Param({"unique", "templates"})
+    private String titles;
+
+    private static final String[] TEMPLATES = {
+            "send-daily-report", "cleanup-tmp", "rotate-logs", "refresh-materialized-views", "vacuum-analyze",
+            "sync-ldap-users", "renew-certificates", "rebuild-search-suggestions", "expire-sessions", "warm-cache"
+    };
+
+    private final Random random = new Random(42);
+
+    private AdmissionPolicy<Process> entities;
+    private Map<String, Title> dictionary;
+    private AdmissionPolicy<ProcessRecord> records;
+    private LocalDateTime time;
+    private int next;
+
+    @Setup
+    public void setup() {
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+        time = LocalDateTime.now();
+        switch (layout) {
+            case "entity" -> entities = new AdmissionPolicy<>(new EntityStore(), size);
+            case "entity-dictionary" -> {
+                entities = new AdmissionPolicy<>(new EntityStore(), size);
+                dictionary = new HashMap<>();
+            }
+            case "record" -> records = new AdmissionPolicy<>(new InMemoryProcessStore(), size);
+            case "record-interned" -> records = new AdmissionPolicy<>(new InMemoryProcessStore(true), size);
+            case "offheap" -> records = new AdmissionPolicy<>(new OffHeapProcessStore(size), size);
+            case "offheap-dictionary" -> records = new AdmissionPolicy<>(new OffHeapProcessStore(size, true), size);
+        }
+        for (int i = 0; i < size; i++) admitFifo();
+        System.out.printf("%n%s, %s titles: %d heap bytes, %d off-heap bytes per process%n", layout, titles,
+                (usedHeap() - heapBefore) / size, (usedDirect() - directBefore) / size);
+    }
+
+    @Benchmark
+    public Object admitFifo() {
+        PriorityType priority = PRIORITIES[next % PRIORITIES.length];
+        String task = title(next++);
+        if (entities != null) {
+            Title title = dictionary == null ? new Title(0, task)
+                    : dictionary.computeIfAbsent(task, key -> new Title(dictionary.size() + 1, key));
+            return entities.admit(new Process(title, priority), priority, CreatingType.FIFO).process();
+        }
+        time = time.plusNanos(1000);
+        return records.admit(new ProcessRecord(0, task, priority, time), priority, CreatingType.FIFO).process();
+    }
+
+    /**
+     * Generates a new title instance, as if it was read from the database
+     *
+     * @param number is the number of the process
+     * @return the title
+     */
+    private String title(int number) {
+        if (titles.equals("unique")) return "Process number " + number;
+        int share = random.nextInt(100);
+        if (share < 2) return "adhoc-investigation-" + number;
+        if (share < 30) return new String("nightly-sync");
+        if (share < 70) return "reindex-shard-" + random.nextInt(64);
+        return new String(TEMPLATES[random.nextInt(TEMPLATES.length)]);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    /**
+     * Keeps the Process entities the way a persistence context or an in-memory cache would: one queue per priority
+     */
+    private static class EntityStore implements ProcessStore<Process> {
+
+        private final List<ArrayDeque<Process>> queues = new ArrayList<>();
+        private long count;
+
+        EntityStore() {
+            for (PriorityType ignored : PRIORITIES) queues.add(new ArrayDeque<>());
+        }
+
+        @Override
+        public long count() {
+            return count;
+        }
+
+        @Override
+        public Process getOldest() {
+            return getOldestWithPriorityBelow(null);
+        }
+
+        @Override
+        public Process getOldestWithPriorityBelow(PriorityType priority) {
+            Process oldest = null;
+            int bound = priority == null ? PRIORITIES.length : priority.ordinal();
+            for (int p = 0; p < bound; p++) {
+                Process head = queues.get(p).peekFirst();
+                if (head != null && (oldest == null || head.getCreated().isBefore(oldest.getCreated()))) oldest = head;
+            }
+            return oldest;
+        }
+
+        @Override
+        public Process insert(Process process) {
+            queues.get(process.getPriority()).addLast(process);
+            count++;
+            return process;
+        }
+
+        @Override
+        public void remove(Process process) {
+            if (queues.get(process.getPriority()).remove(process)) count--;
+        }
+
+        @Override
+        public Process get(long pid) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Process> list(SortingType sort) {
+            throw new UnsupportedOperationException();
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.intuit.task.manager.benchmark;
+
+import com.intuit.task.manager.exceptions.MaximumCapacityExceededException;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of a capacity rejection: an exception with a stack trace and a formatted message
+ * (the former behaviour), a stackless one with a formatted message and the preallocated stackless one.
+ * The depth parameter simulates the call stack of a request handled by Spring MVC.
+ *
+ * The end-to-end rejection throughput is measured by the load test:
+ * mvn -P load-test test-compile exec:exec -Dscenario=src/loadtest/resources/scenarios/saturated.json
+ *
+ * Run: mvn -P benchmark test-compile exec:exec -Dbenchmark=RejectionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RejectionBenchmark {
+
+    private static final String MESSAGE = "The task manager has already accepted the maximum number of tasks: %d";
+
+    @Param({"20", "120"})
+    private int depth;
+
+    private int capacity = 1000;
+    private MaximumCapacityExceededException preallocated;
+
+    @Setup
+    public void setup() {
+        preallocated = new MaximumCapacityExceededException(String.format(MESSAGE, capacity));
+    }
+
+    @Benchmark
+    public String withStackTrace() {
+        try {
+            return call(depth, 0);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String stackless() {
+        try {
+            return call(depth, 1);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String preallocated() {
+        try {
+            return call(depth, 2);
+        } catch (RuntimeException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Descends to the given depth and throws the rejection of the given kind
+     */
+    private String call(int remaining, int kind) {
+        if (remaining > 0) return call(remaining - 1, kind);
+        throw switch (kind) {
+            case 0 -> new WithStackTrace(String.format(MESSAGE, capacity));
+            case 1 -> new MaximumCapacityExceededException(String.format(MESSAGE, capacity));
+            default -> preallocated;
+        };
+    }
+
+    /**
+     * The rejection as it was thrown before: a regular exception with a stack trace
+     */
+    private static class WithStackTrace extends RuntimeException {
+        WithStackTrace(String message) {
+            super(message);
+        }
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.intuit.task.manager.benchmark;
+
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.intuit.task.manager.config.WireFormatConfiguration;
+import com.intuit.task.manager.dto.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Compares the payload size and the encoding time of a 10k-row listing in JSON, Smile and CBOR.
+ *
+ * Run: mvn -P benchmark test-compile exec:exec -Dbenchmark=WireFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private List<ProcessResponseData> listing;
+    private ObjectMapper json;
+    private ObjectMapper smile;
+    private ObjectMapper cbor;
+
+    @Setup
+    public void setup() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        listing = LongStream.range(0, rows)
+                .mapToObj(pid -> ProcessResponseData.builder()
+                        .pid(pid)
+                        .task("reindex-shard-" + pid % 64)
+                        .priority(PriorityType.values()[(int) (pid % 3)])
+                        .created(now.plusNanos(pid * 1_000))
+                        .build())
+                .toList();
+
+        // The same settings as the Spring Boot JSON mapper
+        json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        smile = WireFormatConfiguration.compactMapper(new SmileFactory());
+        cbor = WireFormatConfiguration.compactMapper(new CBORFactory());
+
+        System.out.printf("%nPayload of %d rows: JSON %d bytes, Smile %d bytes, CBOR %d bytes%n", rows,
+                json.writeValueAsBytes(listing).length,
+                smile.writeValueAsBytes(listing).length,
+                cbor.writeValueAsBytes(listing).length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return json.writeValueAsBytes(listing);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() throws Exception {
+        return smile.writeValueAsBytes(listing);
+    }
+
+    @Benchmark
+    public byte[] encodeCbor() throws Exception {
+        return cbor.writeValueAsBytes(listing);
+    }
+
+}
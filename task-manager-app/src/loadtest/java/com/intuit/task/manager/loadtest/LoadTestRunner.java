@@ -0,0 +1,277 @@
+package com.intuit.task.manager.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.task.manager.TaskManagerApplication;
+import org.HdrHistogram.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import java.io.*;
+import java.net.URI;
+import java.net.http.*;
+import java.nio.file.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The HTTP load generator for the TaskController.
+ *
+ * Reads a scenario, starts the application on an in-memory H2 database (unless a base URL is passed),
+ * runs a closed-loop mixed workload and reports throughput, latency percentiles and error rates per operation.
+ * The report is printed and saved to target/loadtest as CSV, so runs can be compared release to release.
+ *
+ * Run: mvn -P load-test test-compile exec:exec -Dscenario=src/loadtest/resources/scenarios/mixed.json
+ *
+ * Arguments: path to the scenario file and an optional base URL of an already running application.
+ * @see Scenario
+ */
+public class LoadTestRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] PRIORITIES = {"low", "medium", "high"};
+
+    /**
+     * The latency is recorded in microseconds, up to one minute
+     */
+    private static final long HIGHEST_LATENCY = TimeUnit.MINUTES.toMicros(1);
+
+    /**
+     * The number of recently created pids used by the GET and KILL operations
+     */
+    private static final int KNOWN_PIDS = 4096;
+
+    private final Scenario scenario;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final Operation[] weighted;
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> attempts = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> rejections = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    private final AtomicLongArray knownPids = new AtomicLongArray(KNOWN_PIDS);
+    private final AtomicLong knownPidsCursor = new AtomicLong();
+    private volatile boolean measuring;
+
+    public LoadTestRunner(Scenario scenario, String baseUrl) {
+        this.scenario = scenario;
+        this.baseUrl = baseUrl;
+
+        List<Operation> operations = new ArrayList<>();
+        scenario.mix().forEach((label, weight) -> {
+            Operation operation = Operation.of(label);
+            for (int i = 0; i < weight; i++) operations.add(operation);
+            latencies.put(operation, new Recorder(HIGHEST_LATENCY, 3));
+            attempts.put(operation, new LongAdder());
+            rejections.put(operation, new LongAdder());
+            errors.put(operation, new LongAdder());
+        });
+        if (operations.isEmpty()) throw new IllegalArgumentException("The scenario doesn't contain any operation");
+        this.weighted = operations.toArray(Operation[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadTestRunner <scenario.json> [base URL]");
+            System.exit(1);
+        }
+        Scenario scenario = MAPPER.readValue(new File(args[0]), Scenario.class);
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl;
+        if (args.length > 1) {
+            baseUrl = args[1];
+        } else {
+            context = startApplication(scenario);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            new LoadTestRunner(scenario, baseUrl).run();
+        } finally {
+            if (context != null) context.close();
+        }
+    }
+
+    /**
+     * Starts the application on a random port with an in-memory H2 database
+     *
+     * @param scenario is the current scenario
+     * @return the started context
+     */
+    private static ConfigurableApplicationContext startApplication(Scenario scenario) {
+        return SpringApplication.run(TaskManagerApplication.class,
+                "--spring.profiles.active=loadtest",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.sql.init.mode=never",
+                "--app.task.manager.search.index=memory",
+                "--app.task.manager.capacity.max=" + scenario.capacity(),
+                "--logging.level.com=warn");
+    }
+
+    /**
+     * Runs the preload, the warm-up and the measurement, then prints and saves the report
+     */
+    public void run() throws Exception {
+        System.out.printf("Scenario \"%s\": %d threads, %d s warm-up, %d s measurement against %s%n",
+                scenario.name(), scenario.threads(), scenario.warmupSeconds(), scenario.durationSeconds(), baseUrl);
+
+        for (int i = 0; i < scenario.preload(); i++) execute(Operation.CREATE_FIFO);
+
+        ExecutorService workers = Executors.newFixedThreadPool(scenario.threads());
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(scenario.warmupSeconds() + scenario.durationSeconds());
+        for (int i = 0; i < scenario.threads(); i++) {
+            workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) execute(weighted[random.nextInt(weighted.length)]);
+            });
+        }
+
+        // The results of the warm-up are discarded
+        Thread.sleep(TimeUnit.SECONDS.toMillis(scenario.warmupSeconds()));
+        latencies.values().forEach(Recorder::reset);
+        measuring = true;
+        long started = System.nanoTime();
+
+        workers.shutdown();
+        workers.awaitTermination(scenario.durationSeconds() + 60L, TimeUnit.SECONDS);
+        measuring = false;
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        report(seconds);
+    }
+
+    /**
+     * Sends one request and records its latency and status
+     * Every completed attempt is counted, including the ones failed without a response,
+     * so the rates never exceed 100%.
+     *
+     * @param operation is the operation to execute
+     */
+    private void execute(Operation operation) {
+        HttpRequest request = request(operation);
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            // A refused or reset connection has no latency but is an attempt
+            count(attempts, operation);
+            count(errors, operation);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long latency = (System.nanoTime() - start) / 1_000;
+
+        // The preload may use an operation that isn't part of the mix
+        Recorder recorder = latencies.get(operation);
+        if (recorder != null) recorder.recordValue(Math.min(latency, HIGHEST_LATENCY));
+        count(attempts, operation);
+
+        int status = response.statusCode();
+        if (status >= 500) {
+            count(errors, operation);
+        } else if (status >= 400) {
+            count(rejections, operation);
+        } else if (status == 201) {
+            try {
+                rememberPid(MAPPER.readTree(response.body()).get("pid").asLong());
+            } catch (JsonProcessingException e) {
+                count(errors, operation);
+            }
+        }
+    }
+
+    /**
+     * Builds the HTTP request of an operation
+     *
+     * @param operation is the operation to execute
+     * @return the request
+     */
+    private HttpRequest request(Operation operation) {
+        String priority = PRIORITIES[ThreadLocalRandom.current().nextInt(PRIORITIES.length)];
+        return switch (operation) {
+            case CREATE_NAIVE -> create("naive", priority);
+            case CREATE_FIFO -> create("fifo", priority);
+            case CREATE_PRIORITY -> create("priority", priority);
+            case LIST_BY_DATE -> get("/tasks/sortedBy/date");
+            case LIST_BY_ID -> get("/tasks/sortedBy/id");
+            case LIST_BY_PRIORITY -> get("/tasks/sortedBy/priority");
+            case GET -> get("/tasks/" + randomPid());
+            case KILL -> HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/remove/" + randomPid())).DELETE().build();
+        };
+    }
+
+    private HttpRequest create(String type, String priority) {
+        String body = String.format("{\"task\":\"load-%s-%s\",\"type\":\"%s\",\"priority\":\"%s\"}",
+                type, priority, type, priority);
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/tasks"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    private void rememberPid(long pid) {
+        knownPids.set((int) (knownPidsCursor.getAndIncrement() % KNOWN_PIDS), pid);
+    }
+
+    private long randomPid() {
+        return knownPids.get(ThreadLocalRandom.current().nextInt(KNOWN_PIDS));
+    }
+
+    private void count(Map<Operation, LongAdder> counters, Operation operation) {
+        if (measuring && counters.containsKey(operation)) counters.get(operation).increment();
+    }
+
+    /**
+     * Prints the results and saves them as CSV to target/loadtest
+     * The requests are all attempts, the throughput and the latency only cover the received responses.
+     *
+     * @param seconds is the duration of the measurement
+     */
+    private void report(double seconds) throws IOException {
+        StringBuilder csv = new StringBuilder("operation,requests,throughput,p50_ms,p99_ms,p999_ms,max_ms,rejected_rate,error_rate\n");
+        System.out.printf("%n%-16s %10s %10s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "4xx %", "error %");
+
+        latencies.forEach((operation, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            long requests = attempts.get(operation).sum();
+            double throughput = histogram.getTotalCount() / seconds;
+            double rejected = requests == 0 ? 0 : 100.0 * rejections.get(operation).sum() / requests;
+            double failed = requests == 0 ? 0 : 100.0 * errors.get(operation).sum() / requests;
+            double p50 = histogram.getValueAtPercentile(50) / 1000.0;
+            double p99 = histogram.getValueAtPercentile(99) / 1000.0;
+            double p999 = histogram.getValueAtPercentile(99.9) / 1000.0;
+            double max = histogram.getMaxValue() / 1000.0;
+
+            System.out.printf("%-16s %10d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.label(), requests, throughput, p50, p99, p999, max, rejected, failed);
+            csv.append(String.format(Locale.ROOT, "%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.2f,%.2f%n",
+                    operation.label(), requests, throughput, p50, p99, p999, max, rejected, failed));
+        });
+
+        Path file = Path.of("target", "loadtest", String.format("%s-%s.csv", scenario.name(),
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))));
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, csv);
+        System.out.printf("%nThe report was saved to %s%n", file);
+    }
+
+}
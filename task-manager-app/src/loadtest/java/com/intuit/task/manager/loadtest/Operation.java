@@ -0,0 +1,46 @@
+package com.intuit.task.manager.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * The operations the load generator sends to the TaskController
+ */
+public enum Operation {
+
+    CREATE_NAIVE("create-naive"),
+    CREATE_FIFO("create-fifo"),
+    CREATE_PRIORITY("create-priority"),
+    LIST_BY_DATE("list-date"),
+    LIST_BY_ID("list-id"),
+    LIST_BY_PRIORITY("list-priority"),
+    GET("get"),
+    KILL("kill");
+
+    /**
+     * The name used in scenario files and reports
+     */
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Getting an operation by the name used in scenario files
+     *
+     * @throws IllegalArgumentException if there is no operation with this name
+     * @param label is the name of the operation
+     * @return the operation
+     */
+    public static Operation of(String label) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.label.equals(label))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown operation in the scenario: " + label));
+    }
+
+}
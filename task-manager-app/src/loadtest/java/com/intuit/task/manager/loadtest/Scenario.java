@@ -0,0 +1,24 @@
+package com.intuit.task.manager.loadtest;
+
+import java.util.Map;
+
+/**
+ * The description of a load test run, read from a JSON file in src/loadtest/resources/scenarios
+ *
+ * @param name is the name of the scenario used in the report
+ * @param capacity is the app.task.manager.capacity.max value of the started application
+ * @param threads is the number of concurrent clients
+ * @param preload is the number of FIFO tasks created before the warm-up
+ * @param warmupSeconds is the duration of the warm-up, its results are discarded
+ * @param durationSeconds is the duration of the measurement
+ * @param mix is the relative weight of each operation by its name
+ * @see Operation
+ */
+public record Scenario(String name,
+                       int capacity,
+                       int threads,
+                       int preload,
+                       int warmupSeconds,
+                       int durationSeconds,
+                       Map<String, Integer> mix) {
+}
@@ -0,0 +1,29 @@
+package com.intuit.task.manager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.task.manager.throttling.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.*;
+
+/**
+ * Configuration of the admission control for the task endpoints.
+ * Enabled by the app.task.manager.throttling.enabled parameter.
+ * @see RequestThrottlingFilter
+ */
+@Configuration
+@EnableConfigurationProperties(ThrottlingProperties.class)
+@ConditionalOnProperty(name = "app.task.manager.throttling.enabled", havingValue = "true")
+public class ThrottlingConfiguration {
+
+    @Bean
+    public FilterRegistrationBean<RequestThrottlingFilter> requestThrottlingFilter(ThrottlingProperties properties,
+                                                                                   ObjectMapper objectMapper) {
+        FilterRegistrationBean<RequestThrottlingFilter> registration =
+                new FilterRegistrationBean<>(new RequestThrottlingFilter(properties, objectMapper));
+        registration.addUrlPatterns("/tasks", "/tasks/*");
+        return registration;
+    }
+
+}
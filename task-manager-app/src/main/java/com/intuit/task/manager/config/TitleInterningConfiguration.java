@@ -0,0 +1,23 @@
+package com.intuit.task.manager.config;
+
+import com.intuit.task.manager.collections.StringInterner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.*;
+
+/**
+ * Configuration of the title interning for the lower-cased titles kept in memory by the search index.
+ * The entities and the DTOs already share the titles of the TitleDictionary.
+ * Enabled by the app.task.manager.titles.intern parameter.
+ * @see StringInterner
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.task.manager.titles.intern", havingValue = "true")
+public class TitleInterningConfiguration {
+
+    @Bean
+    public StringInterner titleInterner(@Value("${app.task.manager.titles.intern-capacity:4096}") int capacity) {
+        return new StringInterner(capacity);
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.intuit.task.manager.config;
+
+import com.fasterxml.jackson.core.*;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.intuit.task.manager.dto.PriorityType;
+import org.springframework.context.annotation.*;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import java.io.IOException;
+import java.time.*;
+
+/**
+ * Configuration of the compact binary wire formats (Smile and CBOR).
+ *
+ * A client selects the format with the Accept header (application/x-jackson-smile or application/cbor),
+ * JSON stays the default representation. In the binary formats timestamps are written as seconds and nanoseconds
+ * since the epoch, taken in UTC so the value doesn't depend on the time zone of the server, and the priority
+ * as its ordinal. Both encode as small integers.
+ */
+@Configuration
+public class WireFormatConfiguration {
+
+    /**
+     * The Smile converter, replaces the default one registered by Spring MVC
+     *
+     * @return converter for application/x-jackson-smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(compactMapper(new SmileFactory()));
+    }
+
+    /**
+     * The CBOR converter, replaces the default one registered by Spring MVC
+     *
+     * @return converter for application/cbor
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(compactMapper(new CBORFactory()));
+    }
+
+    /**
+     * Creates an ObjectMapper for a binary format with compact timestamp and priority encoding
+     *
+     * @param factory is the factory of the binary format
+     * @return a configured ObjectMapper
+     */
+    public static ObjectMapper compactMapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .modulesToInstall(new CompactEncodingModule())
+                .build();
+    }
+
+    /**
+     * Writes LocalDateTime as [seconds, nanoseconds] since the epoch in UTC and PriorityType as its ordinal
+     */
+    private static class CompactEncodingModule extends SimpleModule {
+
+        private static final PriorityType[] PRIORITIES = PriorityType.values();
+        private static final long MIN_SECONDS = LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC);
+        private static final long MAX_SECONDS = LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC);
+
+        CompactEncodingModule() {
+            super("CompactEncodingModule");
+
+            addSerializer(LocalDateTime.class, new JsonSerializer<>() {
+                @Override
+                public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                    gen.writeStartArray();
+                    gen.writeNumber(value.toEpochSecond(ZoneOffset.UTC));
+                    gen.writeNumber(value.getNano());
+                    gen.writeEndArray();
+                }
+            });
+            addDeserializer(LocalDateTime.class, new JsonDeserializer<>() {
+                @Override
+                public LocalDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                    if (parser.isExpectedStartArrayToken() && parser.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+                        long seconds = parser.getLongValue();
+                        if (parser.nextToken() == JsonToken.VALUE_NUMBER_INT) {
+                            long nanos = parser.getLongValue();
+                            if (parser.nextToken() == JsonToken.END_ARRAY && nanos >= 0 && nanos < 1_000_000_000
+                                    && seconds >= MIN_SECONDS && seconds <= MAX_SECONDS) {
+                                return LocalDateTime.ofEpochSecond(seconds, (int) nanos, ZoneOffset.UTC);
+                            }
+                        }
+                    }
+                    throw InvalidFormatException.from(parser, "Expected [seconds, nanoseconds] since the epoch",
+                            parser.getText(), LocalDateTime.class);
+                }
+            });
+
+            addSerializer(PriorityType.class, new JsonSerializer<>() {
+                @Override
+                public void serialize(PriorityType value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                    gen.writeNumber(value.ordinal());
+                }
+            });
+            addDeserializer(PriorityType.class, new JsonDeserializer<>() {
+                @Override
+                public PriorityType deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                    if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                        long ordinal = parser.getLongValue();
+                        if (ordinal >= 0 && ordinal < PRIORITIES.length) return PRIORITIES[(int) ordinal];
+                    }
+                    throw InvalidFormatException.from(parser, "Unknown priority ordinal", parser.getText(), PriorityType.class);
+                }
+            });
+        }
+    }
+
+}
@@ -0,0 +1,460 @@
+package com.intuit.task.manager.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.service.*;
+import com.intuit.task.manager.validation.ValueInEnum;
+import lombok.*;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.*;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.*;
+import javax.validation.constraints.*;
+import java.io.*;
+import java.time.*;
+import java.util.*;
+
+/**
+ * The Controller for working with TaskService
+ * @see TaskService
+ */
+@RestController
+@AllArgsConstructor
+@Validated
+public class TaskController {
+
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * The representations of the conditional GET in the order of preference, each one has its own ETag
+     * @see com.intuit.task.manager.config.WireFormatConfiguration
+     */
+    private static final List<MediaType> REPRESENTATIONS = List.of(MediaType.APPLICATION_JSON,
+            MediaType.valueOf("application/x-jackson-smile"), MediaType.APPLICATION_CBOR);
+
+    private static final TypeReference<ProcessResponseData> PROCESS = new TypeReference<>() {};
+
+    /**
+     * Identifies this instance in the ETags, the modification version is counted by each instance separately
+     */
+    private static final String INSTANCE = Long.toHexString(new Random().nextLong());
+
+    private TaskService service;
+    private AdmissionQueue admissionQueue;
+    private IdempotencyCache idempotency;
+    private ProcessStatistics statistics;
+
+    /**
+     * Adds a new process to the database
+     * A request repeated with the same Idempotency-Key returns the result of the first one.
+     *
+     * @param data is the CreateRequestData-DTO with information about new task
+     * @see CreateRequestData
+     * @param idempotencyKey is the optional key of the request
+     * @see IdempotencyCache
+     * @return the ProcessResponseData with Created status if adding was successful or an error message
+     * @see ProcessResponseData
+     */
+    @PostMapping("/tasks")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ProcessResponseData addTask(@RequestBody @Valid CreateRequestData data,
+                                       @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return idempotency.execute(idempotencyKey, "tasks", data, PROCESS, () -> service.addProcess(data.getTask(),
+                CreatingType.valueOf(data.getType().toUpperCase()),
+                PriorityType.valueOf(data.getPriority().toUpperCase())));
+    }
+
+    /**
+     * Adds a new process asynchronously
+     * The request is put into the admission queue and stored later as a part of a batch.
+     * A request repeated with the same Idempotency-Key returns the ticket of the first one,
+     * with the result once the process has been stored.
+     *
+     * @param data is the CreateRequestData-DTO with information about new task
+     * @see CreateRequestData
+     * @param idempotencyKey is the optional key of the request
+     * @return the ticket with Accepted status, the result is available by GET /tasks/tickets/{id}
+     * @see TicketResponseData
+     */
+    @PostMapping("/tasks/async")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TicketResponseData addTaskAsync(@RequestBody @Valid CreateRequestData data,
+                                           @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return admissionQueue.submit(List.of(toAdmissionRequest(data)),
+                idempotency.key(idempotencyKey, "tasks-async", data)).get(0);
+    }
+
+    /**
+     * Adds a list of new processes asynchronously
+     * A request repeated with the same Idempotency-Key returns the tickets of the first one.
+     *
+     * @param data is the list of CreateRequestData-DTOs with information about new tasks
+     * @see CreateRequestData
+     * @param idempotencyKey is the optional key of the request
+     * @return the tickets with Accepted status in the order of the requests
+     * @see TicketResponseData
+     */
+    @PostMapping("/tasks/async/batch")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public List<TicketResponseData> addTasksAsync(@RequestBody @NotEmpty List<@Valid CreateRequestData> data,
+                                                  @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return admissionQueue.submit(data.stream().map(this::toAdmissionRequest).toList(),
+                idempotency.key(idempotencyKey, "tasks-async-batch", data));
+    }
+
+    /**
+     * Getting the state of an asynchronous request
+     *
+     * @param id is the ticket id
+     * @return the ticket with the stored process or the reason of the rejection,
+     * or an error if the ticket wasn't found or has expired
+     */
+    @GetMapping("/tasks/tickets/{id}")
+    public TicketResponseData getTicket(@PathVariable String id) {
+        return admissionQueue.getTicket(id);
+    }
+
+    /**
+     * Getting a sorted list of all processes
+     *
+     * @param sortType is the value by which the list should be sorted
+     * @param request is the current request, used for the conditional GET
+     * @return the list of all tasks sorted by specified value or an error is the value isn't valid,
+     * an empty 304 response if the list wasn't modified since the version in If-None-Match
+     */
+    @GetMapping("/tasks/sortedBy/{sort-type}")
+    public List<ProcessResponseData> getAllTasksSortedByParam(
+            @PathVariable(name = "sort-type")
+            @ValueInEnum(enumType = SortingType.class)
+            String sortType,
+            NativeWebRequest request) {
+        SortingType sort = SortingType.valueOf(sortType.toUpperCase());
+        if (isNotModified(request, etagOf(request, "list-" + sort.name().toLowerCase()))) return null;
+        return service.getAllProcesses(sort);
+    }
+
+    /**
+     * Getting a default sorted list of all processes
+     * If a time range is specified, only a page of the tasks created in the range is returned.
+     *
+     * @param createdFrom is the beginning of the time range (inclusive), e.g. 2022-05-03T05:33:23
+     * @param createdTo is the end of the time range (exclusive)
+     * @param page is the number of the page of the range, starting from zero
+     * @param size is the size of the page of the range
+     * @param request is the current request, used for the conditional GET
+     * @return the list of all tasks sorted by default (by DATE),
+     * an empty 304 response if the list wasn't modified since the version in If-None-Match
+     */
+    @GetMapping("/tasks")
+    public List<ProcessResponseData> getAllTasksSortedByDefault(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size,
+            NativeWebRequest request) {
+        if (createdFrom == null && createdTo == null) {
+            if (isNotModified(request, etagOf(request, "list-date"))) return null;
+            return service.getAllProcesses(SortingType.DATE);
+        }
+        if (createdFrom != null && createdTo != null && createdFrom.isAfter(createdTo)) {
+            throw new ValidationException(String.format("The time range from %s to %s is not valid", createdFrom, createdTo));
+        }
+        if (isNotModified(request, etagOf(request, String.format("range-%s-%s-%d-%d", createdFrom, createdTo, page, size)))) return null;
+        return service.getProcessesCreatedBetween(createdFrom, createdTo, page, size);
+    }
+
+    /**
+     * Getting one process
+     *
+     * @param id is the process id
+     * The occupancy counters know every process, so an unchanged one gets 304 without reading the repository.
+     * A process unknown to them is read and gets 404 without an ETag if it doesn't exist.
+     *
+     * @param request is the current request, used for the conditional GET
+     * @return the DTO with information about Process or an error if process with specified ID wasn't found,
+     * an empty 304 response if the process wasn't modified since the version in If-None-Match
+     */
+    @GetMapping("/tasks/{id}")
+    public ProcessResponseData getTaskByPid(@PathVariable long id, NativeWebRequest request) {
+        String etag = etagOf(request, "task-" + id);
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.contains('"' + etag + '"') && statistics.contains(id)
+                && isNotModified(request, etag)) return null;
+        ProcessResponseData process = service.getProcess(id);
+        if (isNotModified(request, etag)) return null;
+        return process;
+    }
+
+    /**
+     * Search tasks by title
+     *
+     * @param query is the searched part of the title (case-insensitive)
+     * @param searchType is the way of matching: the title starts with (prefix) or contains (contains) the query
+     * @see SearchType
+     * @param page is the number of the page, starting from zero
+     * @param size is the size of the page
+     * @return the page of found tasks sorted by ID
+     */
+    @GetMapping("/tasks/search")
+    public List<ProcessResponseData> searchTasks(
+            @RequestParam(name = "q") @NotEmpty String query,
+            @RequestParam(name = "type", defaultValue = "contains") @ValueInEnum(enumType = SearchType.class) String searchType,
+            @RequestParam(defaultValue = "0") @Min(0) int page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int size) {
+        return service.searchProcesses(query, SearchType.valueOf(searchType.toUpperCase()), page, size);
+    }
+
+    /**
+     * Getting the occupancy of the task manager
+     *
+     * @return the total number of tasks, the number and the oldest creation time by priority
+     * and the remaining capacity
+     */
+    @GetMapping("/tasks/stats")
+    public StatisticsResponseData getStatistics() {
+        return service.getStatistics();
+    }
+
+    /**
+     * Leases free tasks to a worker
+     * The tasks are taken in priority order (the highest first), then by creation time. Concurrent workers
+     * get disjoint sets of tasks. A task whose lease has expired can be claimed again.
+     *
+     * @param max is the maximum number of tasks
+     * @param lease is the duration of the lease, e.g. 30s or 5m
+     * @return the lease id, its expiration time and the leased tasks (the list is empty if there are no free tasks)
+     * @see LeaseResponseData
+     */
+    @PostMapping("/tasks/claim")
+    public LeaseResponseData claimTasks(@RequestParam(defaultValue = "1") @Min(1) @Max(1000) int max,
+                                        @RequestParam(defaultValue = "30s") String lease) {
+        return service.claimProcesses(max, parseLease(lease));
+    }
+
+    /**
+     * Extends a lease (heartbeat of a worker)
+     *
+     * @param id is the lease id
+     * @param lease is the new duration of the lease counted from now, e.g. 30s or 5m
+     * @return the lease with the new expiration time or an error if the lease wasn't found or has expired
+     * @see LeaseResponseData
+     */
+    @PutMapping("/tasks/leases/{id}")
+    public LeaseResponseData extendLease(@PathVariable String id, @RequestParam(defaultValue = "30s") String lease) {
+        return service.extendLease(id, parseLease(lease));
+    }
+
+    /**
+     * Acknowledges all tasks of a lease, the tasks are removed
+     *
+     * @param id is the lease id
+     * @return the list of removed tasks or an error if the lease wasn't found or has expired
+     */
+    @DeleteMapping("/tasks/leases/{id}")
+    public List<ProcessResponseData> ackLease(@PathVariable String id) {
+        return service.ackProcesses(id);
+    }
+
+    /**
+     * Acknowledges one task of a lease, the task is removed
+     *
+     * @param id is the lease id
+     * @param pid is the task id
+     * @return the list consisting of the removed task or an error if the lease wasn't found,
+     * has expired or doesn't contain the task
+     */
+    @DeleteMapping("/tasks/leases/{id}/{pid}")
+    public List<ProcessResponseData> ackTask(@PathVariable String id, @PathVariable long pid) {
+        return service.ackProcesses(id, pid);
+    }
+
+    /**
+     * Imports tasks from a CSV file
+     * The file has a header and the columns task, priority and (optionally) created, other columns are ignored.
+     *
+     * @param csv is the request body
+     * @return the number of imported tasks and the total number of tasks,
+     * or an error if the file is invalid or the tasks don't fit the capacity (nothing is imported then)
+     */
+    @PostMapping(value = "/tasks/import", consumes = "text/csv")
+    public ImportResponseData importTasks(InputStream csv) {
+        long imported = service.importProcesses(csv);
+        return ImportResponseData.builder()
+                .imported(imported)
+                .total(service.getStatistics().getTotal())
+                .build();
+    }
+
+    /**
+     * Exports all tasks to a CSV file sorted by ID
+     * The file can be imported back by POST /tasks/import.
+     *
+     * @param response is the current response, the file is streamed to its body
+     */
+    @GetMapping("/tasks/export")
+    public void exportTasks(HttpServletResponse response) throws IOException {
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\"");
+        service.exportProcesses(response.getOutputStream());
+    }
+
+    /**
+     * Changes the capacity of the task manager
+     * After a decrease, the tasks exceeding the new capacity are evicted in the background.
+     *
+     * @param data is the DTO with the new capacity and the eviction order (fifo or priority)
+     * @see CapacityRequestData
+     * @return the occupancy of the task manager right after the change,
+     * the excess shows the number of tasks that are still to be evicted
+     */
+    @PutMapping("/tasks/capacity")
+    public StatisticsResponseData changeCapacity(@RequestBody @Valid CapacityRequestData data) {
+        return service.changeCapacity(data.getCapacity(), EvictionType.valueOf(data.getPolicy().toUpperCase()));
+    }
+
+    /**
+     * Remove task by id
+     *
+     * @param id is the process id
+     * @return the list consisting of a single removed object,
+     * or an error if a process with that ID was not found
+     */
+    @DeleteMapping("/tasks/remove/{id}")
+    public List<ProcessResponseData> removeTaskById(@PathVariable long id) {
+        return service.killProcess(id);
+    }
+
+    /**
+     * Remove list of tasks by IDs.
+     *
+     * @param data is the DTO with the list of IDs
+     * @see RemoveRequestData
+     * @return the list consisting of removed objects
+     * or an error if at least one of process with specified ID wasn't found
+     */
+    @DeleteMapping("/tasks/remove/")
+    public List<ProcessResponseData> removeListOfTasks(@RequestBody @Valid RemoveRequestData data) {
+        return service.killProcess(data.getList());
+    }
+
+    /**
+     * Remove all tasks created before the specified time
+     *
+     * @param olderThan is the end of the time range (exclusive), e.g. 2022-05-03T05:33:23
+     * @return the list of all removed processes
+     */
+    @DeleteMapping(value = "/tasks/remove", params = "olderThan")
+    public List<ProcessResponseData> removeTasksOlderThan(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime olderThan) {
+        return service.killProcessesOlderThan(olderThan);
+    }
+
+    /**
+     * Remove all processes with specified Priority
+     * @see PriorityType
+     *
+     * @param priorityType is type of tasks for removing
+     * @return list of all removed processes
+     */
+    @DeleteMapping("/tasks/remove/all/{priority-type}")
+    public List<ProcessResponseData> removeAllTasksByPriority(
+            @PathVariable(name = "priority-type")
+            @ValueInEnum(enumType = PriorityType.class)
+            String priorityType) {
+        return service.killProcessByPriority(PriorityType.valueOf(priorityType.toUpperCase()));
+    }
+
+    /**
+     * Remove all tasks
+     *
+     * @return the list of all removed processes
+     */
+    @DeleteMapping("/tasks/remove/all")
+    public List<ProcessResponseData> removeAllTasks() {
+        return service.killAllProcesses();
+    }
+
+    /**
+     * Helper method that converts the request DTO
+     *
+     * @param data is the CreateRequestData-DTO
+     * @return the request for the admission queue
+     */
+    private AdmissionRequest toAdmissionRequest(CreateRequestData data) {
+        return new AdmissionRequest(data.getTask(),
+                CreatingType.valueOf(data.getType().toUpperCase()),
+                PriorityType.valueOf(data.getPriority().toUpperCase()));
+    }
+
+    /**
+     * Helper method that parses the duration of a lease
+     *
+     * @throws ValidationException if the value isn't a positive duration
+     * @param lease is a duration like 30s, 5m or PT30S
+     * @return the parsed duration
+     */
+    private Duration parseLease(String lease) {
+        try {
+            Duration duration = DurationStyle.detectAndParse(lease);
+            if (!duration.isNegative() && !duration.isZero()) return duration;
+        } catch (IllegalArgumentException ignored) {
+            // Reported below
+        }
+        throw new ValidationException(String.format("The lease duration %s is not valid", lease));
+    }
+
+    /**
+     * Helper method for the conditional GET
+     * Sets the ETag and compares it with If-None-Match. The response varies by Accept.
+     * The repository isn't accessed, so the answer to an unchanged poll is almost free.
+     *
+     * @param request is the current request
+     * @param etag is the ETag of the requested resource
+     * @return true if the client already has the current version and 304 status was set
+     */
+    private boolean isNotModified(NativeWebRequest request, String etag) {
+        HttpServletResponse response = request.getNativeResponse(HttpServletResponse.class);
+        if (response != null) response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * Helper method that builds a strong ETag from the instance, the modification version of the service
+     * and the negotiated format. The JSON, Smile and CBOR bodies differ, so they have different ETags.
+     * The version only counts the modifications made by this instance, so an ETag issued by another instance
+     * or before a restart never matches.
+     *
+     * @param request is the current request
+     * @param resource is the name of the requested resource
+     * @return the ETag without quotes
+     */
+    private String etagOf(NativeWebRequest request, String resource) {
+        return String.format("%s-%d-%s-%s", INSTANCE, service.getVersion(), resource, representationOf(request));
+    }
+
+    /**
+     * Helper method that resolves the format of the response the same way as the content negotiation
+     *
+     * @param request is the current request
+     * @return the subtype of the most preferred acceptable representation, json by default
+     */
+    private String representationOf(NativeWebRequest request) {
+        try {
+            List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT)));
+            MediaType.sortBySpecificityAndQuality(accepted);
+            for (MediaType type : accepted) {
+                for (MediaType representation : REPRESENTATIONS) {
+                    if (type.isCompatibleWith(representation)) return representation.getSubtype();
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // The content negotiation rejects the request anyway
+        }
+        return MediaType.APPLICATION_JSON.getSubtype();
+    }
+
+}
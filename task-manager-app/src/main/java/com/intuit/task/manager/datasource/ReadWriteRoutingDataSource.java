@@ -0,0 +1,82 @@
+package com.intuit.task.manager.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.*;
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * The DataSource that sends read-only transactions to the replica and everything else to the primary.
+ *
+ * The replica is used only while it is considered fresh: no write has been committed to the primary
+ * within the staleness bound, and the last lag probe (if configured) was within the bound as well.
+ * Must be wrapped into a LazyConnectionDataSourceProxy, so that the route is chosen when the
+ * read-only flag of the transaction is already set.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * The possible targets
+     */
+    enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final long maxStalenessNanos;
+    private volatile long lastWriteNanos;
+    private volatile boolean replicaFresh = true;
+
+    /**
+     * Instantiates a new ReadWriteRoutingDataSource
+     *
+     * @param primary is the DataSource for writes
+     * @param replica is the DataSource for read-only transactions
+     * @param maxStalenessNanos is the maximum allowed replication delay
+     */
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long maxStalenessNanos) {
+        this.maxStalenessNanos = maxStalenessNanos;
+        this.lastWriteNanos = System.nanoTime() - maxStalenessNanos;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            boolean fresh = replicaFresh && System.nanoTime() - lastWriteNanos >= maxStalenessNanos;
+            return fresh ? Route.REPLICA : Route.PRIMARY;
+        }
+
+        // The reads that follow a write must not see the replica until it has caught up. The window starts
+        // before the commit, so no read sees the replica once the afterCommit callbacks (e.g. a new version
+        // of the ETag) have run.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    lastWriteNanos = System.nanoTime();
+                }
+            });
+        } else {
+            lastWriteNanos = System.nanoTime();
+        }
+        return Route.PRIMARY;
+    }
+
+    /**
+     * Updates the state of the replica after a lag probe
+     *
+     * @param lagNanos is the measured replication delay or a negative value if the probe failed
+     */
+    void updateReplicaLag(long lagNanos) {
+        boolean fresh = lagNanos >= 0 && lagNanos <= maxStalenessNanos;
+        if (fresh != replicaFresh) {
+            log.info(fresh ? "The replica has caught up, reads are routed to it"
+                    : "The replica is lagging behind, reads are routed to the primary");
+        }
+        replicaFresh = fresh;
+    }
+
+}
@@ -0,0 +1,87 @@
+package com.intuit.task.manager.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.*;
+
+/**
+ * Configuration of the read replica, enabled by the app.datasource.replica.jdbc-url parameter.
+ *
+ * The primary pool is configured by spring.datasource.* (spring.datasource.hikari.* for the pool),
+ * the replica pool by app.datasource.replica.* (the properties of HikariDataSource).
+ * Transactions marked with @Transactional(readOnly = true) go to the replica.
+ * @see ReadWriteRoutingDataSource
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "jdbc-url")
+public class ReplicaRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        return new HikariDataSource();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${app.datasource.replica.max-staleness:1s}") Duration maxStaleness) {
+        return new ReadWriteRoutingDataSource(primary, replica, maxStaleness.toNanos());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Periodically measures the replication delay with the query from app.datasource.replica.lag-query,
+     * which must return the delay in milliseconds, e.g. for PostgreSQL:
+     * SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+     *
+     * @return the executor running the probe
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    @ConditionalOnProperty(prefix = "app.datasource.replica", name = "lag-query")
+    public ScheduledExecutorService replicaLagProbe(
+            ReadWriteRoutingDataSource routingDataSource,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${app.datasource.replica.lag-query}") String lagQuery,
+            @Value("${app.datasource.replica.lag-probe-interval:1s}") Duration interval) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                Double lagMillis = jdbcTemplate.queryForObject(lagQuery, Double.class);
+                routingDataSource.updateReplicaLag(lagMillis == null ? 0 : (long) (lagMillis * 1_000_000));
+            } catch (RuntimeException e) {
+                log.warn("Unable to measure the replication delay: {}", e.getMessage());
+                routingDataSource.updateReplicaLag(-1);
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+}
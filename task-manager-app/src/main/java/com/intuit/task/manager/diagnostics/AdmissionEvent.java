@@ -0,0 +1,37 @@
+package com.intuit.task.manager.diagnostics;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * The JFR event of an admission decision, its duration covers the capacity check, the eviction and the insert
+ * @see com.intuit.task.manager.service.TaskServiceImpl
+ */
+@Name("com.intuit.task.manager.Admission")
+@Label("Admission")
+@Description("A decision to admit a new process")
+@Category("Task Manager")
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public class AdmissionEvent extends Event {
+
+    @Label("Policy")
+    @Description("The creation type: NAIVE, FIFO or PRIORITY")
+    private String policy;
+
+    @Label("Priority")
+    private String priority;
+
+    @Label("Accepted")
+    private boolean accepted;
+
+    @Label("PID")
+    @Description("The identifier of the admitted process, 0 if it was rejected")
+    private long pid;
+
+    @Label("Evicted PID")
+    @Description("The identifier of the process evicted to make room, 0 if none")
+    private long evictedPid;
+
+}
@@ -0,0 +1,73 @@
+package com.intuit.task.manager.diagnostics;
+
+import jdk.jfr.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.*;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * The always-on flight recording of the application.
+ *
+ * Started with the JDK default settings combined with the task manager profile (jfr/task-manager.jfc),
+ * which enables the custom events. The recording is kept in a bounded ring buffer on disk and can be
+ * dumped at any moment with jcmd &lt;pid&gt; JFR.dump name=task-manager.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.task.manager.jfr.enabled", havingValue = "true")
+public class FlightRecording {
+
+    private static final String NAME = "task-manager";
+
+    private final Recording recording;
+
+    /**
+     * Instantiates a new FlightRecording and starts the recording
+     *
+     * @param settings the profile with the settings of the custom events
+     * @param maxAge how long the recorded events are kept
+     * @param maxSize the maximum size of the recorded events
+     * @param destination the file the recording is dumped to when the application stops, none if empty
+     */
+    public FlightRecording(@Value("${app.task.manager.jfr.settings:classpath:jfr/task-manager.jfc}") Resource settings,
+                           @Value("${app.task.manager.jfr.max-age:30m}") Duration maxAge,
+                           @Value("${app.task.manager.jfr.max-size:100MB}") DataSize maxSize,
+                           @Value("${app.task.manager.jfr.destination:}") String destination) throws IOException, ParseException {
+        Map<String, String> merged = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(settings.getInputStream(), StandardCharsets.UTF_8)) {
+            merged.putAll(Configuration.create(reader).getSettings());
+        }
+
+        this.recording = new Recording(merged);
+        recording.setName(NAME);
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        if (!destination.isEmpty()) {
+            recording.setDestination(Path.of(destination));
+            recording.setDumpOnExit(true);
+        }
+        recording.start();
+        log.info("The flight recording \"{}\" has been started with the settings {}", NAME, settings.getDescription());
+    }
+
+    /**
+     * Stops the recording, it is written to the destination if one is set
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (recording.getState() == RecordingState.RUNNING) recording.stop();
+        recording.close();
+    }
+
+}
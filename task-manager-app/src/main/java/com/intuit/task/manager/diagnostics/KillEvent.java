@@ -0,0 +1,31 @@
+package com.intuit.task.manager.diagnostics;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * The JFR event of a batch removal of processes
+ * @see com.intuit.task.manager.service.TaskServiceImpl
+ */
+@Name("com.intuit.task.manager.Kill")
+@Label("Kill")
+@Description("A batch of processes removed in one operation")
+@Category("Task Manager")
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public class KillEvent extends Event {
+
+    @Label("Kind")
+    @Description("IDS, ALL, PRIORITY, OLDER_THAN or SHRINK")
+    private String kind;
+
+    @Label("Requested")
+    @Description("The number of requested IDs, 0 if the processes were selected by the operation")
+    private int requested;
+
+    @Label("Batch Size")
+    @Description("The number of removed processes")
+    private int size;
+
+}
@@ -0,0 +1,26 @@
+package com.intuit.task.manager.diagnostics;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * The JFR event of a list materialization, its duration covers the query and the conversion to DTOs
+ * @see com.intuit.task.manager.service.TaskServiceImpl
+ */
+@Name("com.intuit.task.manager.List")
+@Label("List")
+@Description("A list of processes loaded and converted for a response")
+@Category("Task Manager")
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public class ListEvent extends Event {
+
+    @Label("Sort")
+    @Description("The sorting type, SEARCH or RANGE")
+    private String sort;
+
+    @Label("Rows")
+    private int rows;
+
+}
@@ -0,0 +1,29 @@
+package com.intuit.task.manager.diagnostics;
+
+import jdk.jfr.*;
+import lombok.Setter;
+
+/**
+ * The JFR event of a ProcessRepository call
+ * @see RepositoryEventAspect
+ */
+@Name("com.intuit.task.manager.RepositoryCall")
+@Label("Repository Call")
+@Description("A call of a ProcessRepository method")
+@Category({"Task Manager", "Repository"})
+@Enabled(false)
+@StackTrace(false)
+@Setter
+public class RepositoryEvent extends Event {
+
+    @Label("Method")
+    private String method;
+
+    @Label("Rows")
+    @Description("The number of returned rows, -1 if the method returns a value other than rows")
+    private int rows;
+
+    @Label("Failed")
+    private boolean failed;
+
+}
@@ -0,0 +1,49 @@
+package com.intuit.task.manager.diagnostics;
+
+import com.intuit.task.manager.entities.Process;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.*;
+import org.springframework.stereotype.Component;
+import java.util.*;
+
+/**
+ * Emits a RepositoryEvent around every call of the ProcessRepository.
+ * When the event is disabled in the active recording, the call proceeds without any additional work.
+ * @see RepositoryEvent
+ */
+@Aspect
+@Component
+public class RepositoryEventAspect {
+
+    @Around("target(com.intuit.task.manager.repo.ProcessRepository)")
+    public Object record(ProceedingJoinPoint call) throws Throwable {
+        RepositoryEvent event = new RepositoryEvent();
+        if (!event.isEnabled()) return call.proceed();
+
+        event.begin();
+        try {
+            Object result = call.proceed();
+            event.setRows(rows(result));
+            return result;
+        } catch (Throwable e) {
+            event.setFailed(true);
+            throw e;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setMethod(call.getSignature().getName());
+                event.commit();
+            }
+        }
+    }
+
+    private int rows(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Process) return 1;
+        if (result instanceof Collection<?> collection) return collection.size();
+        if (result instanceof long[] array) return array.length;
+        if (result instanceof Optional<?> optional) return optional.isPresent() ? 1 : 0;
+        return -1;
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.intuit.task.manager.dto;
+
+import com.intuit.task.manager.validation.ValueInEnum;
+import lombok.*;
+import javax.validation.constraints.Min;
+
+/**
+ * The DTO is used to send a request to change the capacity
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CapacityRequestData {
+
+    @Min(1)
+    private int capacity;
+
+    @ValueInEnum(enumType = EvictionType.class)
+    private String policy = "fifo";
+
+}
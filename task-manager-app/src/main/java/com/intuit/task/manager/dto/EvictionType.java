@@ -0,0 +1,8 @@
+package com.intuit.task.manager.dto;
+
+/**
+ * Describes possible orders of evicting the processes that exceed a decreased capacity
+ */
+public enum EvictionType {
+    FIFO, PRIORITY
+}
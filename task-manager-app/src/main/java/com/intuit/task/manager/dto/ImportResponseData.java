@@ -0,0 +1,16 @@
+package com.intuit.task.manager.dto;
+
+import lombok.*;
+
+/**
+ * The DTO is used to return the result of a bulk import
+ */
+@Getter
+@Builder
+@ToString
+public class ImportResponseData {
+
+    private long imported;
+    private long total;
+
+}
@@ -0,0 +1,19 @@
+package com.intuit.task.manager.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The DTO is used to return the processes leased by a worker
+ */
+@Getter
+@Builder
+@ToString
+public class LeaseResponseData {
+
+    private String id;
+    private LocalDateTime expires;
+    private List<ProcessResponseData> processes;
+
+}
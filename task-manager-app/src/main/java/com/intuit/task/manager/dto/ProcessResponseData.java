@@ -1,6 +1,7 @@
 package com.intuit.task.manager.dto;
 
 import lombok.*;
+import lombok.extern.jackson.Jacksonized;
 import java.time.LocalDateTime;
 
 /**
@@ -8,6 +9,7 @@ import java.time.LocalDateTime;
  */
 @Getter
 @Builder
+@Jacksonized
 @ToString
 public class ProcessResponseData {
 
@@ -0,0 +1,8 @@
+package com.intuit.task.manager.dto;
+
+/**
+ * Describes possible ways to match the title of a process
+ */
+public enum SearchType {
+    PREFIX, CONTAINS
+}
@@ -0,0 +1,35 @@
+package com.intuit.task.manager.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * The DTO is used to return the occupancy of the task manager
+ */
+@Getter
+@Builder
+@ToString
+public class StatisticsResponseData {
+
+    private long total;
+    private int capacity;
+    private long remaining;
+    private long excess;
+    private long evictedByShrink;
+    private Map<PriorityType, PriorityStatistics> priorities;
+
+    /**
+     * The occupancy by one priority
+     */
+    @Getter
+    @Builder
+    @ToString
+    public static class PriorityStatistics {
+
+        private long count;
+        private LocalDateTime oldest;
+
+    }
+
+}
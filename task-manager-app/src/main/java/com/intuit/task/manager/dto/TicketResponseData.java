@@ -0,0 +1,22 @@
+package com.intuit.task.manager.dto;
+
+import lombok.*;
+import lombok.extern.jackson.Jacksonized;
+import java.time.LocalDateTime;
+
+/**
+ * The DTO is used to return the state of an asynchronous request to add a process
+ */
+@Getter
+@Builder
+@Jacksonized
+@ToString
+public class TicketResponseData {
+
+    private String id;
+    private TicketStatus status;
+    private LocalDateTime accepted;
+    private ProcessResponseData process;
+    private String error;
+
+}
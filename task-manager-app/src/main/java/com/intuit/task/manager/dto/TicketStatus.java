@@ -0,0 +1,8 @@
+package com.intuit.task.manager.dto;
+
+/**
+ * Describes the states of an asynchronous request to add a process
+ */
+public enum TicketStatus {
+    PENDING, DONE, REJECTED, FAILED
+}
@@ -0,0 +1,37 @@
+package com.intuit.task.manager.entities;
+
+import lombok.*;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The stored result of a request made with an Idempotency-Key
+ * @see com.intuit.task.manager.service.IdempotencyCache
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class IdempotencyRecord {
+
+    /**
+     * The key sent by the client, prefixed with the scope of the endpoint
+     */
+    @Id
+    private String id;
+
+    /**
+     * The hash of the request body, a key can't be reused for a different request
+     */
+    private String fingerprint;
+
+    /**
+     * The response of the first request as JSON
+     */
+    @Column(columnDefinition = "text")
+    private String response;
+
+    private LocalDateTime created;
+
+}
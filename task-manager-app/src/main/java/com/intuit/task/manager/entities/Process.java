@@ -0,0 +1,59 @@
+package com.intuit.task.manager.entities;
+
+import com.intuit.task.manager.dto.PriorityType;
+import com.intuit.task.manager.repo.TitleListener;
+import lombok.*;
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An entity for collect in a database
+ */
+@Entity
+@Table(name = "processes")
+@EntityListeners(TitleListener.class)
+@NoArgsConstructor
+@Getter
+public class Process {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long pid;
+
+    private int priority;
+    private LocalDateTime created;
+
+    /**
+     * The title is stored once in the titles table and referenced by its id. The string is taken from
+     * the TitleDictionary when the entity is created or loaded, so the processes with the same title share it.
+     * @see com.intuit.task.manager.repo.TitleDictionary
+     */
+    @Column(name = "title_id", nullable = false)
+    private int titleId;
+
+    @Transient
+    private String task;
+
+    /**
+     * The lease of a worker that has claimed the process, both values are null if the process has never been claimed.
+     * A process whose lease has expired can be claimed again.
+     */
+    private String leaseId;
+    private LocalDateTime leaseExpires;
+
+    public Process(Title title, PriorityType priority) {
+        this.titleId = title.getId();
+        this.task = title.getTask();
+        this.priority = priority.ordinal();
+        this.created = LocalDateTime.now();
+    }
+
+    /**
+     * Sets the title of a loaded process
+     *
+     * @param title is the title referenced by the process
+     */
+    public void setTitle(Title title) {
+        this.task = title.getTask();
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.intuit.task.manager.entities;
+
+import lombok.*;
+import javax.persistence.*;
+
+/**
+ * A distinct process title, the processes reference it by its id
+ * @see com.intuit.task.manager.repo.TitleDictionary
+ */
+@Entity
+@Table(name = "titles")
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+public class Title {
+
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private int id;
+
+    @Column(nullable = false, unique = true)
+    private String task;
+
+}
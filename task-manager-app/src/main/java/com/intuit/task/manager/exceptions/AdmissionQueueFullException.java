@@ -0,0 +1,10 @@
+package com.intuit.task.manager.exceptions;
+
+/**
+ * Thrown out if an asynchronous request can't be accepted because the admission queue is full
+ */
+public class AdmissionQueueFullException extends RuntimeException {
+    public AdmissionQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,119 @@
+package com.intuit.task.manager.exceptions;
+
+import com.intuit.task.manager.dto.ErrorResponseData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import javax.validation.*;
+import java.time.Duration;
+
+/**
+ * Class for Global exception handling
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionsHandler {
+
+    private final SampledLog rejectionLog;
+
+    /**
+     * Instantiates a new GlobalExceptionsHandler
+     *
+     * @param rejectionLogInterval the minimum interval between two logged rejections
+     */
+    public GlobalExceptionsHandler(@Value("${app.task.manager.rejections.log-interval:1s}") Duration rejectionLogInterval) {
+        this.rejectionLog = new SampledLog(rejectionLogInterval);
+    }
+
+    /**
+     * Handling an error when the requested process, ticket or lease does not exist
+     *
+     * @param exception is a ProcessNotFoundException, a TicketNotFoundException or a LeaseNotFoundException
+     * @return a ResponseEntity with an error message containing the request ID and 404 status
+     */
+    @ExceptionHandler({
+            ProcessNotFoundException.class,
+            TicketNotFoundException.class,
+            LeaseNotFoundException.class
+    })
+    public ResponseEntity<ErrorResponseData> handleNotFoundException(RuntimeException exception) {
+        return new ResponseEntity<>(getResponse(exception.getMessage()), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handling an error when the admission queue is full
+     *
+     * @param exception is an AdmissionQueueFullException
+     * @return a ResponseEntity with an error message, 429 status and the Retry-After header
+     */
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponseData> handleException(AdmissionQueueFullException exception) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(getResponse(exception.getMessage()));
+    }
+
+    /**
+     * Handling an error when an Idempotency-Key is reused for a different request
+     *
+     * @param exception is an IdempotencyKeyReusedException
+     * @return a ResponseEntity with an error message and 422 status
+     */
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponseData> handleException(IdempotencyKeyReusedException exception) {
+        return new ResponseEntity<>(getResponse(exception.getMessage()), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    /**
+     * Handling the rejections of new processes due to exceeding the allowed capacity
+     * Under saturation the rejections are frequent, so at most one of them is logged per interval
+     * together with the number of skipped ones.
+     *
+     * @param exception is a MaximumCapacityExceededException or an UnableToApplyPriorityOrderException
+     * @return a ResponseEntity with an error message and 400 status
+     */
+    @ExceptionHandler({
+            MaximumCapacityExceededException.class,
+            UnableToApplyPriorityOrderException.class
+    })
+    public ResponseEntity<ErrorResponseData> handleRejection(RuntimeException exception) {
+        long skipped = rejectionLog.tryLog();
+        if (skipped >= 0) log.error("{} ({} similar rejections were not logged)", exception.getMessage(), skipped);
+        return new ResponseEntity<>(new ErrorResponseData(exception.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handling exceptions specified in the method annotation related to request
+     * validation problems and invalid import files
+     *
+     * @param exception one of the listed exception types
+     * @return a ResponseEntity with an error message and 400 status
+     */
+    @ExceptionHandler({
+            InvalidImportFileException.class,
+            ConstraintViolationException.class,
+            MethodArgumentNotValidException.class,
+            MethodArgumentTypeMismatchException.class,
+            ValidationException.class
+    })
+    public ResponseEntity<ErrorResponseData> handleException(Exception exception) {
+        return new ResponseEntity<>(getResponse(exception.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Helper method that logs the error and generates the body for the response
+     *
+     * @param message this is the error message
+     * @return a DTO with the error message and the current timestamp
+     * @see ErrorResponseData
+     */
+    private ErrorResponseData getResponse(String message) {
+        log.error(message);
+        return new ErrorResponseData(message);
+    }
+
+
+}
@@ -0,0 +1,10 @@
+package com.intuit.task.manager.exceptions;
+
+/**
+ * Thrown out if a file passed for the bulk import can't be parsed
+ */
+public class InvalidImportFileException extends RuntimeException {
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
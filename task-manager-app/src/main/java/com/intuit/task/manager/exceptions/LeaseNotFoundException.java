@@ -0,0 +1,10 @@
+package com.intuit.task.manager.exceptions;
+
+/**
+ * Thrown if an attempt is made to extend or acknowledge a non-existent or expired lease.
+ */
+public class LeaseNotFoundException extends RuntimeException {
+    public LeaseNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,35 @@
+package com.intuit.task.manager.exceptions;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Lets through at most one message per interval. The skipped messages are counted,
+ * so the logged one can report how many similar messages were dropped.
+ */
+class SampledLog {
+
+    private final long intervalNanos;
+    private final AtomicLong nextAllowed = new AtomicLong(System.nanoTime());
+    private final LongAdder skipped = new LongAdder();
+
+    SampledLog(Duration interval) {
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Decides whether the current message should be logged
+     *
+     * @return the number of messages skipped since the last logged one, or -1 if the current one should be skipped
+     */
+    long tryLog() {
+        long now = System.nanoTime();
+        long allowed = nextAllowed.get();
+        if (now - allowed >= 0 && nextAllowed.compareAndSet(allowed, now + intervalNanos)) {
+            return skipped.sumThenReset();
+        }
+        skipped.increment();
+        return -1;
+    }
+
+}
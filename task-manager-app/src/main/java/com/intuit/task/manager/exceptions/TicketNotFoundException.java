@@ -0,0 +1,10 @@
+package com.intuit.task.manager.exceptions;
+
+/**
+ * Thrown if an attempt is made to get a non-existent or expired ticket.
+ */
+public class TicketNotFoundException extends RuntimeException {
+    public TicketNotFoundException(String message) {
+        super(message);
+    }
+}
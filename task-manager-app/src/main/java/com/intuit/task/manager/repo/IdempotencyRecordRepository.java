@@ -0,0 +1,51 @@
+package com.intuit.task.manager.repo;
+
+import com.intuit.task.manager.entities.IdempotencyRecord;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+
+/**
+ * The interface of the repository of idempotency keys
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Inserts a record without reading it first as save() does for an entity with an assigned id,
+     * so a concurrent insert of the same key fails on the primary key
+     *
+     * @param id is the scoped key
+     * @param fingerprint is the hash of the request body
+     * @param response is the response as JSON
+     * @param created is the time of the first request
+     */
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (id, fingerprint, response, created) VALUES (:id, :fingerprint, :response, :created)",
+            nativeQuery = true)
+    void insert(@Param("id") String id,
+                @Param("fingerprint") String fingerprint,
+                @Param("response") String response,
+                @Param("created") LocalDateTime created);
+
+    /**
+     * Removing the expired keys
+     *
+     * @param time is the creation time before which the keys are removed
+     * @return the number of removed keys
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.created < :time")
+    int deleteCreatedBefore(@Param("time") LocalDateTime time);
+
+    /**
+     * Removing a key if it has expired
+     *
+     * @param id is the scoped key
+     * @param time is the creation time before which the key is removed
+     * @return the number of removed keys
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.created < :time")
+    int deleteCreatedBefore(@Param("id") String id, @Param("time") LocalDateTime time);
+
+}
@@ -0,0 +1,60 @@
+package com.intuit.task.manager.repo;
+
+import com.intuit.task.manager.core.ProcessStore;
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.entities.Process;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+/**
+ * The storage backend of the admission engine that delegates to the database.
+ * Must be called inside a transaction.
+ * @see com.intuit.task.manager.core.AdmissionPolicy
+ */
+@Component
+@AllArgsConstructor
+public class JpaProcessStore implements ProcessStore<Process> {
+
+    private ProcessRepository repository;
+
+    @Override
+    public long count() {
+        return repository.count();
+    }
+
+    @Override
+    public Process getOldest() {
+        return repository.getFirstByOrderByCreated();
+    }
+
+    @Override
+    public Process getOldestWithPriorityBelow(PriorityType priority) {
+        return repository.getFirstByPriorityLessThanOrderByCreated(priority.ordinal());
+    }
+
+    @Override
+    public Process insert(Process process) {
+        return repository.save(process);
+    }
+
+    @Override
+    public void remove(Process process) {
+        repository.delete(process);
+    }
+
+    @Override
+    public Process get(long pid) {
+        return repository.getByPid(pid);
+    }
+
+    @Override
+    public List<Process> list(SortingType sort) {
+        return switch (sort) {
+            case ID -> repository.getAllByOrderByPid();
+            case DATE -> repository.getAllByOrderByCreated();
+            case PRIORITY -> repository.getAllByOrderByPriority();
+        };
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.intuit.task.manager.repo;
+
+import com.intuit.task.manager.dto.PriorityType;
+import com.intuit.task.manager.entities.Process;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.*;
+import javax.annotation.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * The partitions of the processes table (PostgreSQL 11+, see schema-postgresql-partitioned.sql)
+ *
+ * The table is list-partitioned by priority (processes_p0, processes_p1, ...), and every priority is
+ * range-partitioned by the creation time into daily partitions (processes_p0_20220503, ...) with a default
+ * partition for the rest. The daily partitions are created some days ahead by a background thread.
+ * A removal by priority becomes a truncate and a removal by age drops the whole days,
+ * so these operations leave no dead tuples for vacuum. The methods must be called inside a transaction.
+ *
+ * The expired days are detached from their priority at the end of the removing transaction, so the ACCESS EXCLUSIVE
+ * lock of the parent is held only until the commit, and dropped by the maintenance thread after the commit.
+ * On PostgreSQL 14+ the days can be detached concurrently after the commit instead, without locking the parent
+ * (app.task.manager.partitioning.detach-concurrently); their processes stay visible until then.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.task.manager.partitioning.enabled", havingValue = "true")
+public class ProcessPartitions {
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String DAILY_PARTITIONS = "SELECT relname FROM pg_class WHERE relkind = 'r' AND relispartition " +
+            "AND relname ~ '^processes_p[0-9]+_[0-9]{8}$'";
+
+    /**
+     * The days detached by a removal but not dropped, e.g. because the application has stopped meanwhile
+     */
+    private static final String DETACHED_PARTITIONS = "SELECT relname FROM pg_class WHERE relkind = 'r' " +
+            "AND NOT relispartition AND relname ~ '^processes_p[0-9]+_[0-9]{8}$'";
+
+    /**
+     * The days whose concurrent detaching was interrupted (PostgreSQL 14+)
+     */
+    private static final String PENDING_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhdetachpending AND c.relname ~ '^processes_p[0-9]+_[0-9]{8}$'";
+
+    /**
+     * The key of the advisory lock taken by the removals by age
+     */
+    private static final long REMOVAL_LOCK = "processes_removal".hashCode();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int daysAhead;
+    private final boolean detachConcurrently;
+
+    /**
+     * The days that can't be created because their processes are already in the default partition.
+     * They aren't retried, the processes of such a day stay in the default partition.
+     * Accessed only by the maintenance thread.
+     */
+    private final Set<String> skipped = new HashSet<>();
+
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "partition-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Instantiates a new ProcessPartitions
+     *
+     * @param jdbcTemplate the template of the primary database
+     * @param daysAhead the number of days whose partitions are created in advance
+     * @param detachConcurrently whether the expired days are detached concurrently (PostgreSQL 14+)
+     */
+    public ProcessPartitions(JdbcTemplate jdbcTemplate,
+                             @Value("${app.task.manager.partitioning.days-ahead:7}") int daysAhead,
+                             @Value("${app.task.manager.partitioning.detach-concurrently:false}") boolean detachConcurrently) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.daysAhead = daysAhead;
+        this.detachConcurrently = detachConcurrently;
+    }
+
+    @PostConstruct
+    public void start() {
+        maintain();
+        maintenance.scheduleAtFixedRate(this::maintain, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * Locks the partition of a priority against concurrent modifications until the end of the transaction
+     *
+     * @param priority is the priority of the partition
+     */
+    public void lock(PriorityType priority) {
+        jdbcTemplate.execute(String.format("LOCK TABLE %s IN ACCESS EXCLUSIVE MODE", priorityPartition(priority)));
+    }
+
+    /**
+     * Removes all processes with a priority
+     *
+     * @param priority is the priority of the partition
+     */
+    public void truncate(PriorityType priority) {
+        jdbcTemplate.execute("TRUNCATE " + priorityPartition(priority));
+        log.debug("The partition of {} priority was truncated", priority.name());
+    }
+
+    /**
+     * Locks the daily partitions that contain only processes created before a given time
+     * The partitions can still be read, but not modified until the end of the transaction.
+     * The removals by age are serialized, so a partition isn't detached by two of them.
+     *
+     * @param time is the end of the range (exclusive)
+     * @return the names of the locked partitions
+     */
+    public List<String> lockBefore(LocalDateTime time) {
+        jdbcTemplate.execute(String.format("SELECT pg_advisory_xact_lock(%d)", REMOVAL_LOCK));
+        List<String> expired = jdbcTemplate.queryForList(DAILY_PARTITIONS, String.class).stream()
+                .filter(name -> !dayOf(name).plusDays(1).atStartOfDay().isAfter(time))
+                .sorted()
+                .toList();
+        if (!expired.isEmpty()) {
+            jdbcTemplate.execute(String.format("LOCK TABLE %s IN EXCLUSIVE MODE", String.join(", ", expired)));
+        }
+        return expired;
+    }
+
+    /**
+     * Getting the daily partition of a process
+     *
+     * @param process is the stored process
+     * @return the name of the partition of its priority and day, even if the day has no partition
+     */
+    public String dailyPartition(Process process) {
+        return String.format("processes_p%d_%s", process.getPriority(), process.getCreated().toLocalDate().format(DAY));
+    }
+
+    /**
+     * Removes the daily partitions locked by lockBefore
+     * Must be the last statement of the transaction: the partitions are detached now, unless they are
+     * detached concurrently, and dropped after the commit. The method returns before they are dropped.
+     *
+     * @param partitions are the names of the partitions
+     */
+    public void detachAndDrop(List<String> partitions) {
+        if (!detachConcurrently) {
+            for (String partition : partitions) {
+                jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s", parentOf(partition), partition));
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // The statements can't run on the connection of the completed transaction
+                try {
+                    maintenance.execute(() -> partitions.forEach(partition -> drop(partition, detachConcurrently)));
+                } catch (RejectedExecutionException e) {
+                    log.warn("Unable to schedule dropping the partitions {}", partitions);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops a partition, each statement in its own transaction
+     * A partition that can't be dropped is retried by the maintenance.
+     *
+     * @param partition is the name of the partition
+     * @param detach whether the partition has to be detached concurrently first
+     */
+    private void drop(String partition, boolean detach) {
+        try {
+            if (detach) {
+                jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s CONCURRENTLY", parentOf(partition), partition));
+            }
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+            log.debug("Dropped the partition {}", partition);
+        } catch (DataAccessException e) {
+            log.warn("Unable to drop the partition {}: {}", partition, e.getMessage());
+        }
+    }
+
+    /**
+     * The hourly maintenance: finishes the interrupted removals and creates the missing daily partitions
+     */
+    private void maintain() {
+        try {
+            if (detachConcurrently) {
+                for (String partition : jdbcTemplate.queryForList(PENDING_PARTITIONS, String.class)) {
+                    jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s FINALIZE", parentOf(partition), partition));
+                }
+            }
+            jdbcTemplate.queryForList(DETACHED_PARTITIONS, String.class).forEach(partition -> drop(partition, false));
+        } catch (DataAccessException e) {
+            log.warn("Unable to remove the detached partitions: {}", e.getMessage());
+        }
+        createPartitions();
+    }
+
+    /**
+     * Creates the missing daily partitions from today to daysAhead
+     * A day whose processes are already in the default partition can't be created, it's reported once and skipped.
+     */
+    private void createPartitions() {
+        LocalDate today = LocalDate.now();
+        skipped.removeIf(partition -> dayOf(partition).isBefore(today));
+        for (PriorityType priority : PriorityType.values()) {
+            for (int day = 0; day <= daysAhead; day++) {
+                LocalDate from = today.plusDays(day);
+                String partition = String.format("%s_%s", priorityPartition(priority), from.format(DAY));
+                if (skipped.contains(partition)) continue;
+                try {
+                    jdbcTemplate.execute(String.format(
+                            "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                            partition, priorityPartition(priority), from, from.plusDays(1)));
+                } catch (DataIntegrityViolationException e) {
+                    skipped.add(partition);
+                    log.warn("The partition {} can't be created, the processes of that day stay in the default partition: {}",
+                            partition, e.getMessage());
+                } catch (DataAccessException e) {
+                    log.warn("Unable to create the partition {}: {}", partition, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static String priorityPartition(PriorityType priority) {
+        return "processes_p" + priority.ordinal();
+    }
+
+    /**
+     * @param partition is the name of a daily partition
+     * @return the name of the partition of its priority
+     */
+    private static String parentOf(String partition) {
+        return partition.substring(0, partition.lastIndexOf('_'));
+    }
+
+    /**
+     * @param partition is the name of a daily partition
+     * @return its day
+     */
+    private static LocalDate dayOf(String partition) {
+        return LocalDate.parse(partition.substring(partition.lastIndexOf('_') + 1), DAY);
+    }
+
+}
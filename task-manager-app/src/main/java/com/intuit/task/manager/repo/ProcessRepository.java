@@ -0,0 +1,252 @@
+package com.intuit.task.manager.repo;
+
+import com.intuit.task.manager.entities.Process;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The interface Process repository.
+ */
+public interface ProcessRepository extends JpaRepository<Process, Long> {
+
+    /**
+     * Getting the oldest record in the database
+     *
+     * @return the oldest record or null if the database is empty
+     */
+    Process getFirstByOrderByCreated();
+
+    /**
+     * Getting the oldest record whose priority is lower than the requested one
+     *
+     * @param currentLevel the current Priority level
+     * @see com.intuit.task.manager.dto.PriorityType
+     * @return the oldest task with less priority than current or null if there is no such task
+     */
+    Process getFirstByPriorityLessThanOrderByCreated(int currentLevel);
+
+    /**
+     * Getting the oldest records
+     *
+     * @param limit is the maximum number of records
+     * @return the records sorted by date
+     */
+    @Query(value = "SELECT * FROM processes ORDER BY created LIMIT :limit", nativeQuery = true)
+    List<Process> getOldest(@Param("limit") int limit);
+
+    /**
+     * Getting the oldest records with the lowest priority
+     *
+     * @param limit is the maximum number of records
+     * @return the records sorted by priority, then by date
+     */
+    @Query(value = "SELECT * FROM processes ORDER BY priority, created LIMIT :limit", nativeQuery = true)
+    List<Process> getOldestWithLowestPriority(@Param("limit") int limit);
+
+    /**
+     * Getting a page of records created in a time range
+     * On PostgreSQL the query is an index range scan of processes_created_idx, see schema-postgresql.sql
+     *
+     * @param from is the beginning of the range (inclusive)
+     * @param to is the end of the range (exclusive)
+     * @param page is the requested page
+     * @return the page of records sorted by date, then by pid
+     */
+    @Query("SELECT p FROM Process p WHERE p.created >= :from AND p.created < :to ORDER BY p.created, p.pid")
+    List<Process> getCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to, Pageable page);
+
+    /**
+     * Getting and locking the records created before a given time
+     *
+     * @param time is the end of the range (exclusive)
+     * @return the records sorted by date, then by pid
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Process p WHERE p.created < :time ORDER BY p.created, p.pid")
+    List<Process> getCreatedBefore(@Param("time") LocalDateTime time);
+
+    /**
+     * Leasing the free records in a single statement (PostgreSQL)
+     * The candidates locked by concurrent claims are skipped instead of waited for.
+     *
+     * @param leaseId is the identifier of the new lease
+     * @param expires is the expiration time of the new lease
+     * @param now is the current time, the leases that expired before it are free
+     * @param max is the maximum number of records
+     * @return the leased records
+     */
+    @Query(value = "UPDATE processes SET lease_id = :lease, lease_expires = :expires WHERE pid IN (" +
+            "SELECT pid FROM processes WHERE lease_expires IS NULL OR lease_expires < :now " +
+            "ORDER BY priority DESC, created LIMIT :max FOR UPDATE SKIP LOCKED) RETURNING *", nativeQuery = true)
+    List<Process> claimSkipLocked(@Param("lease") String leaseId,
+                                  @Param("expires") LocalDateTime expires,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("max") int max);
+
+    /**
+     * Getting and locking the free records (databases without SKIP LOCKED)
+     *
+     * @param now is the current time, the leases that expired before it are free
+     * @param page limits the number of records
+     * @return the records sorted by priority (the highest first), then by date
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Process p WHERE p.leaseExpires IS NULL OR p.leaseExpires < :now ORDER BY p.priority DESC, p.created")
+    List<Process> getClaimable(@Param("now") LocalDateTime now, Pageable page);
+
+    /**
+     * Leasing the records with the given IDs
+     *
+     * @param pids are the IDs of the locked records
+     * @param leaseId is the identifier of the new lease
+     * @param expires is the expiration time of the new lease
+     * @return the number of leased records
+     */
+    @Modifying
+    @Query("UPDATE Process p SET p.leaseId = :lease, p.leaseExpires = :expires WHERE p.pid IN :pids")
+    int lease(@Param("pids") List<Long> pids, @Param("lease") String leaseId, @Param("expires") LocalDateTime expires);
+
+    /**
+     * Extending an active lease
+     *
+     * @param leaseId is the identifier of the lease
+     * @param expires is the new expiration time
+     * @param now is the current time, an expired lease can't be extended
+     * @return the number of records of the lease
+     */
+    @Modifying
+    @Query("UPDATE Process p SET p.leaseExpires = :expires WHERE p.leaseId = :lease AND p.leaseExpires >= :now")
+    int extendLease(@Param("lease") String leaseId, @Param("expires") LocalDateTime expires, @Param("now") LocalDateTime now);
+
+    /**
+     * Deleting the records of an active lease
+     * The lease is checked again by the delete itself, so a record whose lease has expired
+     * and which another worker has claimed meanwhile is kept.
+     *
+     * @param pids are the IDs of the records
+     * @param leaseId is the identifier of the lease
+     * @param now is the current time
+     * @return the number of deleted records
+     */
+    @Modifying
+    @Query("DELETE FROM Process p WHERE p.pid IN :pids AND p.leaseId = :lease AND p.leaseExpires >= :now")
+    int deleteLeased(@Param("pids") List<Long> pids, @Param("lease") String leaseId, @Param("now") LocalDateTime now);
+
+    /**
+     * Getting the records of an active lease
+     *
+     * @param leaseId is the identifier of the lease
+     * @param now is the current time
+     * @return the records sorted by priority (the highest first), then by date
+     */
+    @Query("SELECT p FROM Process p WHERE p.leaseId = :lease AND p.leaseExpires >= :now ORDER BY p.priority DESC, p.created")
+    List<Process> getLeased(@Param("lease") String leaseId, @Param("now") LocalDateTime now);
+
+    /**
+     * Getting the greatest ID
+     *
+     * @return the greatest ID or zero if there are no records
+     */
+    @Query("SELECT coalesce(max(p.pid), 0) FROM Process p")
+    long getMaxPid();
+
+    /**
+     * Getting the next page of records in a range of IDs
+     *
+     * @param pid is the last ID of the previous page
+     * @param maxPid is the last ID of the range
+     * @return up to 1000 records sorted by ID
+     */
+    List<Process> findTop1000ByPidGreaterThanAndPidLessThanEqualOrderByPid(long pid, long maxPid);
+
+    /**
+     * Getting the next page of the summaries of all records
+     *
+     * @param pid is the last ID of the previous page
+     * @param page is the size of the page
+     * @return the summaries sorted by ID
+     */
+    @Query("SELECT new com.intuit.task.manager.repo.ProcessSummary(p.pid, p.priority, p.created, p.titleId) " +
+            "FROM Process p WHERE p.pid > :pid ORDER BY p.pid")
+    List<ProcessSummary> getSummariesAfter(@Param("pid") long pid, Pageable page);
+
+    /**
+     * Passes the summaries of all records to the consumer page by page, without loading the entities
+     *
+     * @param consumer is called for every record in the order of the IDs
+     */
+    default void forEachSummary(Consumer<ProcessSummary> consumer) {
+        long pid = 0;
+        List<ProcessSummary> page;
+        while (!(page = getSummariesAfter(pid, PageRequest.of(0, 1000))).isEmpty()) {
+            page.forEach(consumer);
+            pid = page.get(page.size() - 1).pid();
+        }
+    }
+
+    /**
+     * Getting the ID of all processes with a given priority
+     *
+     * @param currentLevel the current Priority level
+     * @return list of all selected values
+     */
+    @Query(value = "SELECT pid FROM processes WHERE priority = :level", nativeQuery = true)
+    long[] getAllIdsByPriority(@Param("level") int currentLevel);
+    /**
+     * Getting a list of all records (sorted by date)
+     *
+     * @return sorted list of all values
+     */
+    List<Process> getAllByOrderByCreated();
+
+    /**
+     * Getting a list of all records with a given priority (sorted by date)
+     *
+     * @param priority the Priority level
+     * @return sorted list of the selected values
+     */
+    List<Process> getAllByPriorityOrderByCreated(int priority);
+
+    /**
+     * Getting a list of all records (sorted by priority)
+     *
+     * @return sorted list of all values
+     */
+    List<Process> getAllByOrderByPriority();
+
+    /**
+     * Getting a list of all records (sorted by pid)
+     *
+     * @return sorted list of all values
+     */
+    List<Process> getAllByOrderByPid();
+
+    /**
+     * Getting an entry by ID
+     *
+     * @param id is the value for the search
+     * @return entry with specified ID
+     */
+    Process getByPid(Long id);
+
+    /**
+     * Getting a page of records whose title matches the pattern (case-insensitive)
+     * On PostgreSQL the titles are found by the trigram index on lower(task) of the titles table,
+     * and their processes by the index on title_id, see schema-postgresql.sql
+     *
+     * @param pattern is the LIKE pattern in lower case
+     * @param limit is the size of the page
+     * @param offset is the number of skipped records
+     * @return the page of matching records sorted by pid
+     */
+    @Query(value = "SELECT p.* FROM processes p JOIN titles t ON t.id = p.title_id WHERE lower(t.task) LIKE :pattern " +
+            "ORDER BY p.pid LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Process> searchByTitle(@Param("pattern") String pattern, @Param("limit") int limit, @Param("offset") int offset);
+
+
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.intuit.task.manager.repo;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a process needed to build the in-memory structures, read without loading the entity
+ * @see ProcessRepository#forEachSummary
+ *
+ * @param pid is the process ID
+ * @param priority is the ordinal of the PriorityType
+ * @param created is the creation time
+ * @param titleId is the id of the title
+ */
+public record ProcessSummary(long pid, int priority, LocalDateTime created, int titleId) {
+}
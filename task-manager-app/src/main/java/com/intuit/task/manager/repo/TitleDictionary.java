@@ -0,0 +1,114 @@
+package com.intuit.task.manager.repo;
+
+import com.intuit.task.manager.entities.Title;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.*;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The dictionary of the process titles.
+ *
+ * Every distinct title is stored once in the titles table and the processes reference it by an integer id,
+ * which makes the rows of the processes table and its indexes smaller. The titles are cached in both directions,
+ * so a known title costs no query and all the processes and DTOs with the same title share one string.
+ * A stored title is never changed or removed, so the cache needs no invalidation.
+ */
+@Slf4j
+@Component
+public class TitleDictionary {
+
+    private static final String SELECT_ALL = "SELECT id, task FROM titles ORDER BY id LIMIT ?";
+    private static final String SELECT_ID = "SELECT id FROM titles WHERE task = ?";
+    private static final String SELECT_TASK = "SELECT task FROM titles WHERE id = ?";
+    private static final String INSERT = "INSERT INTO titles (task) VALUES (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A new title is committed in its own transaction, so it can be cached right away
+     * even if the transaction of the process is rolled back
+     */
+    private final TransactionTemplate newTransaction;
+
+    private final int cacheSize;
+    private final Map<String, Title> byTask = new ConcurrentHashMap<>();
+    private final Map<Integer, Title> byId = new ConcurrentHashMap<>();
+
+    /**
+     * Instantiates a new TitleDictionary and caches the stored titles
+     *
+     * @param jdbcTemplate the JdbcTemplate of the current transaction
+     * @param transactionManager the transaction manager of the primary database
+     * @param cacheSize the maximum number of cached titles, the others are read from the database every time
+     */
+    public TitleDictionary(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.task.manager.titles.cache-size:100000}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cacheSize = cacheSize;
+        jdbcTemplate.query(SELECT_ALL, (RowCallbackHandler) resultSet ->
+                remember(new Title(resultSet.getInt(1), resultSet.getString(2))), cacheSize);
+        log.info("{} titles were cached", byId.size());
+    }
+
+    /**
+     * Getting the stored title, the title is stored if it's new
+     * Should be called before the transaction of the process if possible, a new title takes another connection.
+     *
+     * @param task is the process title
+     * @return the stored title
+     */
+    public Title resolve(String task) {
+        Title title = byTask.get(task);
+        if (title != null) return title;
+        List<Integer> ids = jdbcTemplate.queryForList(SELECT_ID, Integer.class, task);
+        if (!ids.isEmpty()) return remember(new Title(ids.get(0), task));
+        try {
+            return remember(newTransaction.execute(status -> {
+                jdbcTemplate.update(INSERT, task);
+                return new Title(jdbcTemplate.queryForObject(SELECT_ID, Integer.class, task), task);
+            }));
+        } catch (DuplicateKeyException e) {
+            // Another transaction has stored the title and committed meanwhile
+            return remember(new Title(jdbcTemplate.queryForObject(SELECT_ID, Integer.class, task), task));
+        }
+    }
+
+    /**
+     * Getting a title by id
+     *
+     * @throws IllegalStateException if the title doesn't exist
+     * @param id is the id of the title
+     * @return the stored title
+     */
+    public Title get(int id) {
+        Title title = byId.get(id);
+        if (title != null) return title;
+        List<String> tasks = jdbcTemplate.queryForList(SELECT_TASK, String.class, id);
+        if (tasks.isEmpty()) throw new IllegalStateException(String.format("Title with id %d doesn't exist", id));
+        return remember(new Title(id, tasks.get(0)));
+    }
+
+    /**
+     * Caches a title unless the cache is full
+     *
+     * @param title is a stored title
+     * @return the cached instance of the title
+     */
+    private Title remember(Title title) {
+        if (byId.size() >= cacheSize) return title;
+        Title known = byTask.putIfAbsent(title.getTask(), title);
+        if (known != null) return known;
+        byId.put(title.getId(), title);
+        return title;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.intuit.task.manager.repo;
+
+import com.intuit.task.manager.entities.Process;
+import org.springframework.beans.factory.ObjectProvider;
+import javax.persistence.PostLoad;
+
+/**
+ * Sets the title of every loaded process from the TitleDictionary.
+ * The dictionary is looked up lazily, it depends on the transaction manager built on the entity manager factory.
+ * @see TitleDictionary
+ */
+public class TitleListener {
+
+    private final ObjectProvider<TitleDictionary> dictionary;
+
+    public TitleListener(ObjectProvider<TitleDictionary> dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @PostLoad
+    public void setTitle(Process process) {
+        process.setTitle(dictionary.getObject().get(process.getTitleId()));
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.intuit.task.manager.search;
+
+import com.intuit.task.manager.dto.SearchType;
+import com.intuit.task.manager.entities.Process;
+import com.intuit.task.manager.repo.ProcessRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.*;
+
+/**
+ * The search index that delegates to the database.
+ * Intended for PostgreSQL, where LIKE queries on lower(task) of the titles use the pg_trgm index.
+ */
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "app.task.manager.search.index", havingValue = "database")
+public class DatabaseSearchIndex implements SearchIndex {
+
+    private ProcessRepository repository;
+
+    @Override
+    public List<Process> search(String query, SearchType type, int page, int size) {
+        String escaped = query.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        String pattern = switch (type) {
+            case PREFIX -> escaped + "%";
+            case CONTAINS -> "%" + escaped + "%";
+        };
+        return repository.searchByTitle(pattern, size, page * size);
+    }
+
+}
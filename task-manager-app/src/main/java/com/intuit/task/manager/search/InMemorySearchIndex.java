@@ -0,0 +1,180 @@
+package com.intuit.task.manager.search;
+
+import com.intuit.task.manager.collections.*;
+import com.intuit.task.manager.dto.SearchType;
+import com.intuit.task.manager.entities.Process;
+import com.intuit.task.manager.repo.*;
+import com.intuit.task.manager.service.ProcessChangeListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.*;
+import java.util.concurrent.locks.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * The in-memory n-gram index of process titles (used with H2 or when the database has no trigram support).
+ *
+ * Every lower-cased title is split into trigrams (a title shorter than three characters is a gram itself),
+ * and each gram points to the set of processes containing it. A query of three or more characters is
+ * answered by verifying the processes of its rarest trigram, a shorter query is answered by the grams
+ * that contain it. In both cases the cost depends on the number of candidates, not on the table size.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.task.manager.search.index", havingValue = "memory", matchIfMissing = true)
+public class InMemorySearchIndex implements SearchIndex, ProcessChangeListener {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final ProcessRepository repository;
+
+    /**
+     * Shares the instances of equal titles if the interning is enabled
+     */
+    private final UnaryOperator<String> interner;
+
+    /**
+     * Lower-cased titles by pid
+     */
+    private final LongObjectHashMap<String> titles = new LongObjectHashMap<>();
+
+    /**
+     * Sets of pids by gram
+     */
+    private final Map<String, LongHashSet> postings = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Instantiates a new InMemorySearchIndex and fills it with all stored processes
+     * The processes are read page by page without loading the entities.
+     *
+     * @param repository the implementation of ProcessRepository
+     * @param dictionary the dictionary of the process titles
+     * @param interner the pool of titles, available if app.task.manager.titles.intern is enabled
+     */
+    public InMemorySearchIndex(ProcessRepository repository, TitleDictionary dictionary, ObjectProvider<StringInterner> interner) {
+        this.repository = repository;
+        StringInterner titles = interner.getIfAvailable();
+        this.interner = titles != null ? titles::intern : UnaryOperator.identity();
+        repository.forEachSummary(process -> add(process.pid(), dictionary.get(process.titleId()).getTask()));
+        log.info("The search index was built for {} processes", size());
+    }
+
+    @Override
+    public List<Process> search(String query, SearchType type, int page, int size) {
+        String value = query.toLowerCase(Locale.ROOT);
+        LongArrayList found = new LongArrayList();
+
+        lock.readLock().lock();
+        try {
+            candidates(value).forEach(pid -> {
+                String title = titles.get(pid);
+                boolean matches = switch (type) {
+                    case PREFIX -> title.startsWith(value);
+                    case CONTAINS -> title.contains(value);
+                };
+                if (matches) found.add(pid);
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        found.sort();
+        int from = (int) Math.min((long) page * size, found.size());
+        int to = Math.min(from + size, found.size());
+        List<Long> pids = found.boxed(from, to);
+
+        // The rows are fetched by primary key and returned in the order of the page
+        Map<Long, Process> processes = new HashMap<>();
+        repository.findAllById(pids).forEach(process -> processes.put(process.getPid(), process));
+        return pids.stream().map(processes::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public void onAdded(Process process) {
+        add(process.getPid(), process.getTask());
+    }
+
+    private void add(long pid, String task) {
+        String title = interner.apply(task.toLowerCase(Locale.ROOT));
+        lock.writeLock().lock();
+        try {
+            titles.put(pid, title);
+            for (String gram : grams(title)) {
+                postings.computeIfAbsent(gram, key -> new LongHashSet()).add(pid);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return titles.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onRemoved(Collection<Process> processes) {
+        lock.writeLock().lock();
+        try {
+            for (Process process : processes) {
+                String title = titles.remove(process.getPid());
+                if (title == null) continue;
+                for (String gram : grams(title)) {
+                    LongHashSet pids = postings.get(gram);
+                    if (pids != null && pids.remove(process.getPid()) && pids.isEmpty()) postings.remove(gram);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Selects the processes that may match the query
+     *
+     * @param query is the lower-cased query
+     * @return the pids of the candidates
+     */
+    private LongHashSet candidates(String query) {
+        if (query.length() >= GRAM_LENGTH) {
+            LongHashSet rarest = null;
+            for (String gram : grams(query)) {
+                LongHashSet pids = postings.get(gram);
+                if (pids == null) return new LongHashSet(0);
+                if (rarest == null || pids.size() < rarest.size()) rarest = pids;
+            }
+            return rarest;
+        }
+
+        // Any title containing a short query has a gram containing it
+        LongHashSet result = new LongHashSet();
+        postings.forEach((gram, pids) -> {
+            if (gram.contains(query)) pids.forEach(result::add);
+        });
+        return result;
+    }
+
+    /**
+     * Splits a string into grams
+     *
+     * @param value is a lower-cased string
+     * @return the set of distinct grams
+     */
+    private static Set<String> grams(String value) {
+        if (value.length() <= GRAM_LENGTH) return Set.of(value);
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            result.add(value.substring(i, i + GRAM_LENGTH));
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.intuit.task.manager.search;
+
+import com.intuit.task.manager.dto.SearchType;
+import com.intuit.task.manager.entities.Process;
+import java.util.List;
+
+/**
+ * The interface of an index used to search processes by title.
+ * The implementation is selected by the app.task.manager.search.index parameter.
+ */
+public interface SearchIndex {
+
+    /**
+     * Searches processes by title (case-insensitive)
+     *
+     * @param query is the searched part of the title
+     * @param type indicates whether the title should start with or contain the query
+     * @see SearchType
+     * @param page is the number of the page, starting from zero
+     * @param size is the size of the page
+     * @return a page of the found entities sorted by pid
+     */
+    List<Process> search(String query, SearchType type, int page, int size);
+
+}
@@ -0,0 +1,365 @@
+package com.intuit.task.manager.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.exceptions.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.PreDestroy;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The asynchronous admission pipeline.
+ *
+ * Requests are put into a bounded queue and answered with a ticket right away. A single writer thread
+ * drains the queue in micro-batches and stores each batch in one transaction, which amortizes the round
+ * trips to the database. The result is kept in the ticket until it expires.
+ * The requests of one submission are never split between transactions. A submission with an Idempotency-Key
+ * is stored in its own transaction together with the key and the final state of its tickets, so a retry gets
+ * the same tickets with their results even after the tickets have expired.
+ * @see TaskService#addProcesses
+ * @see IdempotencyCache
+ */
+@Slf4j
+@Component
+public class AdmissionQueue {
+
+    private static final TypeReference<List<TicketResponseData>> TICKETS = new TypeReference<>() {};
+
+    private final TaskService service;
+    private final IdempotencyCache idempotency;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<Submission> queue = new LinkedBlockingQueue<>();
+    private final int queueCapacity;
+    private final int batchSize;
+    private final Duration ticketTtl;
+
+    /**
+     * The number of queued requests, limited by the capacity of the queue
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+
+    /**
+     * The submissions with an Idempotency-Key that aren't stored yet, by scoped key
+     */
+    private final Map<String, Submission> pendingKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Completed tickets in the order of completion, used to expire them
+     */
+    private final Queue<Ticket> completed = new ConcurrentLinkedQueue<>();
+
+    private final Thread writer;
+
+    /**
+     * Removes the expired tickets once a second, also while no requests come
+     */
+    private final ScheduledExecutorService expiration = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "admission-expiration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Instantiates a new AdmissionQueue and starts the writer thread
+     *
+     * @param service the implementation of TaskService
+     * @param idempotency the store of the Idempotency-Keys
+     * @param transactionManager the transaction manager of the primary database
+     * @param queueCapacity the maximum number of pending requests
+     * @param batchSize the maximum number of requests stored in one transaction
+     * @param ticketTtl how long the result of a completed request is available
+     */
+    public AdmissionQueue(TaskService service,
+                          IdempotencyCache idempotency,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.task.manager.async.queue-capacity:10000}") int queueCapacity,
+                          @Value("${app.task.manager.async.batch-size:256}") int batchSize,
+                          @Value("${app.task.manager.async.ticket-ttl:10m}") Duration ticketTtl) {
+        this.service = service;
+        this.idempotency = idempotency;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.ticketTtl = ticketTtl;
+        this.writer = new Thread(this::drain, "admission-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        this.expiration.scheduleWithFixedDelay(this::expire, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Puts requests into the queue
+     *
+     * @throws AdmissionQueueFullException if the queue has no room for all the requests
+     * @param requests are the processes to add
+     * @return the tickets of the requests in the same order
+     */
+    public List<TicketResponseData> submit(List<AdmissionRequest> requests) {
+        return submit(requests, null);
+    }
+
+    /**
+     * Puts requests into the queue once per Idempotency-Key
+     * A submission repeated with the same key gets the tickets of the first one: pending while the first one
+     * waits in the queue, with the results once it has been stored.
+     *
+     * @throws AdmissionQueueFullException if the queue has no room for all the requests
+     * @throws IdempotencyKeyReusedException if the key was used for different requests
+     * @param requests are the processes to add
+     * @param key is the scoped Idempotency-Key or null
+     * @return the tickets of the requests in the same order
+     */
+    public List<TicketResponseData> submit(List<AdmissionRequest> requests, IdempotencyCache.Key key) {
+        if (key != null) {
+            List<TicketResponseData> stored = idempotency.lookup(key, TICKETS);
+            if (stored != null) return stored;
+        }
+        if (queued.addAndGet(requests.size()) > queueCapacity) {
+            queued.addAndGet(-requests.size());
+            throw new AdmissionQueueFullException(String.format("The admission queue can't accept %d more requests", requests.size()));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Submission submission = new Submission(requests.stream()
+                .map(request -> new Ticket(UUID.randomUUID().toString(), request, now))
+                .toList(), key);
+        if (key != null) {
+            Submission other = pendingKeys.putIfAbsent(key.id(), submission);
+            if (other != null) {
+                queued.addAndGet(-requests.size());
+                idempotency.checkFingerprint(key, other.key().fingerprint());
+                return other.toDto();
+            }
+        }
+        submission.tickets().forEach(ticket -> tickets.put(ticket.id, ticket));
+        queue.add(submission);
+        log.debug("{} requests were put into the admission queue", requests.size());
+        return submission.toDto();
+    }
+
+    /**
+     * Getting the state of a ticket
+     *
+     * @throws TicketNotFoundException if the ticket doesn't exist or has expired
+     * @param id is the ticket identifier
+     * @return the DTO with the state of the ticket
+     */
+    public TicketResponseData getTicket(String id) {
+        Ticket ticket = tickets.get(id);
+        if (ticket == null) throw new TicketNotFoundException(String.format("Ticket with id %s wasn't found", id));
+        return ticket.toDto();
+    }
+
+    /**
+     * The loop of the writer thread
+     * A batch is closed once it reaches the batch size, so it may exceed it by the requests of its last submission.
+     */
+    private void drain() {
+        List<Submission> batch = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Submission next = queue.take();
+                int size = 0;
+                do {
+                    batch.add(next);
+                    size += next.tickets().size();
+                } while (size < batchSize && (next = queue.poll()) != null);
+                queued.addAndGet(-size);
+                store(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Stores the submissions in the order of the queue
+     * The submissions without a key are stored together, each one with a key in its own transaction.
+     *
+     * @param batch are the submissions taken from the queue
+     */
+    private void store(List<Submission> batch) {
+        List<Ticket> unkeyed = new ArrayList<>();
+        for (Submission submission : batch) {
+            if (submission.key() == null) {
+                unkeyed.addAll(submission.tickets());
+                continue;
+            }
+            if (!unkeyed.isEmpty()) {
+                storeTickets(unkeyed);
+                unkeyed = new ArrayList<>();
+            }
+            storeWithKey(submission);
+        }
+        if (!unkeyed.isEmpty()) storeTickets(unkeyed);
+    }
+
+    /**
+     * Stores a batch in a single transaction and completes its tickets
+     *
+     * @param batch are the tickets taken from the queue
+     */
+    private void storeTickets(List<Ticket> batch) {
+        try {
+            List<AdmissionResult> results = service.addProcesses(batch.stream().map(ticket -> ticket.request).toList());
+            for (int i = 0; i < batch.size(); i++) complete(batch.get(i), results.get(i));
+        } catch (RuntimeException e) {
+            log.error("Unable to store a batch of {} processes", batch.size(), e);
+            batch.forEach(ticket -> complete(ticket, TicketStatus.FAILED, null, e.getMessage()));
+        }
+    }
+
+    /**
+     * Stores a submission and its key in a single transaction and completes its tickets
+     * If the key has been stored meanwhile (by another instance), the transaction is rolled back
+     * and the tickets take over the stored results, so the processes aren't added twice.
+     *
+     * @param submission is a submission with an Idempotency-Key
+     */
+    private void storeWithKey(Submission submission) {
+        List<Ticket> batch = submission.tickets();
+        try {
+            List<AdmissionResult> results = transactionTemplate.execute(status -> {
+                List<AdmissionResult> stored = service.addProcesses(batch.stream().map(ticket -> ticket.request).toList());
+                List<TicketResponseData> response = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    AdmissionResult result = stored.get(i);
+                    response.add(batch.get(i).toDto(statusOf(result), result.process(), result.error()));
+                }
+                idempotency.save(submission.key(), response);
+                return stored;
+            });
+            for (int i = 0; i < batch.size(); i++) complete(batch.get(i), results.get(i));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("The Idempotency-Key {} was stored concurrently", submission.key().id());
+            completeFromStored(submission);
+        } catch (RuntimeException e) {
+            log.error("Unable to store a batch of {} processes", batch.size(), e);
+            batch.forEach(ticket -> complete(ticket, TicketStatus.FAILED, null, e.getMessage()));
+        } finally {
+            pendingKeys.remove(submission.key().id(), submission);
+        }
+    }
+
+    private void completeFromStored(Submission submission) {
+        List<Ticket> batch = submission.tickets();
+        List<TicketResponseData> stored = null;
+        try {
+            stored = idempotency.lookup(submission.key(), TICKETS);
+        } catch (RuntimeException e) {
+            log.error("Unable to read the stored results of the Idempotency-Key {}", submission.key().id(), e);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            if (stored == null || stored.size() != batch.size()) {
+                complete(batch.get(i), TicketStatus.FAILED, null, "The results of the Idempotency-Key are unavailable");
+            } else {
+                TicketResponseData result = stored.get(i);
+                complete(batch.get(i), result.getStatus(), result.getProcess(), result.getError());
+            }
+        }
+    }
+
+    private void complete(Ticket ticket, AdmissionResult result) {
+        complete(ticket, statusOf(result), result.process(), result.error());
+    }
+
+    private void complete(Ticket ticket, TicketStatus status, ProcessResponseData process, String error) {
+        ticket.process = process;
+        ticket.error = error;
+        ticket.completedAt = System.nanoTime();
+        ticket.status = status;
+        completed.add(ticket);
+    }
+
+    private static TicketStatus statusOf(AdmissionResult result) {
+        return result.isAccepted() ? TicketStatus.DONE : TicketStatus.REJECTED;
+    }
+
+    /**
+     * Removes the completed tickets whose time to live has passed
+     * Called by the expiration thread only, so a ticket is peeked and polled by the same thread.
+     */
+    private void expire() {
+        long expiredBefore = System.nanoTime() - ticketTtl.toNanos();
+        Ticket ticket;
+        while ((ticket = completed.peek()) != null && ticket.completedAt - expiredBefore < 0) {
+            completed.poll();
+            tickets.remove(ticket.id);
+        }
+    }
+
+    /**
+     * Stops the writer thread, the requests left in the queue are marked as failed
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        expiration.shutdownNow();
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        Submission submission;
+        while ((submission = queue.poll()) != null) {
+            submission.tickets().forEach(ticket -> complete(ticket, TicketStatus.FAILED, null, "The application is stopping"));
+        }
+        pendingKeys.clear();
+    }
+
+    /**
+     * An asynchronous request and its result
+     */
+    private static class Ticket {
+
+        private final String id;
+        private final AdmissionRequest request;
+        private final LocalDateTime accepted;
+        private volatile TicketStatus status = TicketStatus.PENDING;
+        private volatile ProcessResponseData process;
+        private volatile String error;
+        private volatile long completedAt;
+
+        Ticket(String id, AdmissionRequest request, LocalDateTime accepted) {
+            this.id = id;
+            this.request = request;
+            this.accepted = accepted;
+        }
+
+        TicketResponseData toDto() {
+            return toDto(status, process, error);
+        }
+
+        TicketResponseData toDto(TicketStatus status, ProcessResponseData process, String error) {
+            return TicketResponseData.builder()
+                    .id(id)
+                    .status(status)
+                    .accepted(accepted)
+                    .process(process)
+                    .error(error)
+                    .build();
+        }
+    }
+
+    /**
+     * The requests of one call of submit
+     *
+     * @param tickets are the tickets of the requests
+     * @param key is the scoped Idempotency-Key or null
+     */
+    private record Submission(List<Ticket> tickets, IdempotencyCache.Key key) {
+
+        List<TicketResponseData> toDto() {
+            return tickets.stream().map(Ticket::toDto).toList();
+        }
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.intuit.task.manager.service;
+
+import com.intuit.task.manager.dto.*;
+
+/**
+ * A request to add a process as a part of a batch
+ * @see TaskService#addProcesses
+ *
+ * @param task The process title.
+ * @param type The process creation type.
+ * @param priority The process priority type.
+ */
+public record AdmissionRequest(String task, CreatingType type, PriorityType priority) {
+}
@@ -0,0 +1,26 @@
+package com.intuit.task.manager.service;
+
+import com.intuit.task.manager.dto.ProcessResponseData;
+
+/**
+ * The result of adding a process as a part of a batch
+ * @see TaskService#addProcesses
+ *
+ * @param process is the Process-DTO of the stored process or null if it was rejected
+ * @param error is the reason of the rejection or null if the process was stored
+ */
+public record AdmissionResult(ProcessResponseData process, String error) {
+
+    public static AdmissionResult accepted(ProcessResponseData process) {
+        return new AdmissionResult(process, null);
+    }
+
+    public static AdmissionResult rejected(String error) {
+        return new AdmissionResult(null, error);
+    }
+
+    public boolean isAccepted() {
+        return process != null;
+    }
+
+}
@@ -0,0 +1,326 @@
+package com.intuit.task.manager.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.task.manager.exceptions.IdempotencyKeyReusedException;
+import com.intuit.task.manager.repo.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.*;
+import javax.annotation.*;
+import javax.validation.ValidationException;
+import java.nio.charset.StandardCharsets;
+import java.security.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * The results of the requests made with an Idempotency-Key header
+ *
+ * A retried request with the same key gets the response of the first one, and the process isn't admitted twice.
+ * The recent keys are kept in a bounded in-memory map evicting the least recently used ones, and every key is
+ * also stored in the idempotency_keys table in the transaction of the request, so a key survives a restart
+ * and is shared by all instances. The keys expire after the TTL.
+ * A request that hands its work over to another thread, e.g. to the writer of the admission queue, looks up
+ * its key with {@link #lookup} and the thread doing the work stores the final response with {@link #save}
+ * in its own transaction, so the response is never stored before the work is done.
+ * A failed request isn't stored and can be retried with the same key.
+ */
+@Slf4j
+@Component
+public class IdempotencyCache {
+
+    private static final int MAX_KEY_LENGTH = 200;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+
+    private final Map<String, Entry> recent;
+
+    /**
+     * The requests in progress, a concurrent request with the same key waits for the first one
+     */
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService cleanup = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "idempotency-cleanup");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Instantiates a new IdempotencyCache
+     *
+     * @param repository the repository of the stored keys
+     * @param objectMapper the mapper used to store the responses as JSON
+     * @param transactionManager the transaction manager of the primary database
+     * @param maxKeys the maximum number of keys kept in memory
+     * @param ttl how long a key is remembered
+     */
+    public IdempotencyCache(IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.task.manager.idempotency.max-keys:10000}") int maxKeys,
+                            @Value("${app.task.manager.idempotency.ttl:24h}") Duration ttl) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = ttl;
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void start() {
+        cleanup.scheduleAtFixedRate(this::removeExpired, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleanup.shutdownNow();
+    }
+
+    /**
+     * Executes a request once per key
+     *
+     * @throws ValidationException if the key is blank or too long
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @param key is the value of the Idempotency-Key header, the request is just executed if it's null
+     * @param scope is the name of the endpoint, the same key may be used for different endpoints
+     * @param request is the body of the request
+     * @param type is the type of the response
+     * @param action executes the request
+     * @return the response of the first request with the key
+     */
+    public <T> T execute(String key, String scope, Object request, TypeReference<T> type, Supplier<T> action) {
+        Key scoped = key(key, scope, request);
+        if (scoped == null) return action.get();
+
+        String id = scoped.id();
+        String fingerprint = scoped.fingerprint();
+        while (true) {
+            Entry entry = find(id);
+            if (entry == null) {
+                CompletableFuture<Entry> pending = new CompletableFuture<>();
+                CompletableFuture<Entry> other = inFlight.putIfAbsent(id, pending);
+                if (other == null) {
+                    try {
+                        entry = store(id, fingerprint, action);
+                        pending.complete(entry);
+                    } catch (RuntimeException e) {
+                        pending.completeExceptionally(e);
+                        throw e;
+                    } finally {
+                        inFlight.remove(id, pending);
+                    }
+                } else {
+                    // Waits for the concurrent request, if it fails this one takes its place
+                    entry = other.exceptionally(e -> null).join();
+                    if (entry == null) continue;
+                }
+            }
+            checkFingerprint(scoped, entry.fingerprint);
+            return read(entry, type);
+        }
+    }
+
+    /**
+     * Scopes and fingerprints a key
+     *
+     * @throws ValidationException if the key is blank or too long
+     * @param key is the value of the Idempotency-Key header or null
+     * @param scope is the name of the endpoint, the same key may be used for different endpoints
+     * @param request is the body of the request
+     * @return the scoped key or null if the key is null
+     */
+    public Key key(String key, String scope, Object request) {
+        if (key == null) return null;
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException(String.format("The Idempotency-Key must contain from 1 to %d characters", MAX_KEY_LENGTH));
+        }
+        return new Key(key, scope + ":" + key, fingerprint(request));
+    }
+
+    /**
+     * Getting the stored response of a request whose work is done by another thread
+     *
+     * @throws IdempotencyKeyReusedException if the key was used for a different request
+     * @param key is the scoped key
+     * @param type is the type of the response
+     * @return the response of the first request with the key or null if the key is unknown or has expired
+     */
+    public <T> T lookup(Key key, TypeReference<T> type) {
+        Entry entry = find(key.id());
+        if (entry == null) return null;
+        checkFingerprint(key, entry.fingerprint);
+        return read(entry, type);
+    }
+
+    /**
+     * Stores the response of a request whose work is done by another thread
+     * Must be called in the transaction doing the work, the key is remembered in memory after the commit.
+     *
+     * @throws DataIntegrityViolationException if the key was stored concurrently, e.g. by another instance
+     * @param key is the scoped key
+     * @param response is the final response of the request
+     */
+    public void save(Key key, Object response) {
+        LocalDateTime now = LocalDateTime.now();
+        String json = write(response);
+        repository.insert(key.id(), key.fingerprint(), json, now);
+        Entry entry = new Entry(key.fingerprint(), json, response, now);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(key.id(), entry);
+            }
+        });
+    }
+
+    /**
+     * Checks that a key is used for the same request
+     *
+     * @throws IdempotencyKeyReusedException if the fingerprints of the requests differ
+     * @param key is the scoped key of a request
+     * @param fingerprint is the fingerprint of the first request with the key
+     */
+    public void checkFingerprint(Key key, String fingerprint) {
+        if (!key.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(String.format("The Idempotency-Key %s was used for a different request", key.key()));
+        }
+    }
+
+    /**
+     * Looks for a key in memory and then in the database
+     *
+     * @param id is the scoped key
+     * @return the stored entry or null if the key is unknown or has expired
+     */
+    private Entry find(String id) {
+        Entry entry;
+        synchronized (recent) {
+            entry = recent.get(id);
+        }
+        if (entry == null) {
+            entry = repository.findById(id)
+                    .map(stored -> new Entry(stored.getFingerprint(), stored.getResponse(), null, stored.getCreated()))
+                    .orElse(null);
+            if (entry == null) return null;
+            remember(id, entry);
+        }
+        LocalDateTime expired = LocalDateTime.now().minus(ttl);
+        if (entry.created.isBefore(expired)) {
+            synchronized (recent) {
+                recent.remove(id, entry);
+            }
+            transactionTemplate.execute(status -> repository.deleteCreatedBefore(id, expired));
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Executes the request and stores the key in the same transaction
+     * If another instance has stored the same key meanwhile, the transaction is rolled back
+     * and the response of the other instance is returned.
+     */
+    private <T> Entry store(String id, String fingerprint, Supplier<T> action) {
+        LocalDateTime now = LocalDateTime.now();
+        Entry entry;
+        try {
+            entry = transactionTemplate.execute(status -> {
+                T response = action.get();
+                String json = write(response);
+                repository.insert(id, fingerprint, json, now);
+                return new Entry(fingerprint, json, response, now);
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("The Idempotency-Key {} was stored concurrently", id);
+            entry = repository.findById(id)
+                    .map(stored -> new Entry(stored.getFingerprint(), stored.getResponse(), null, stored.getCreated()))
+                    .orElseThrow(() -> e);
+        }
+        remember(id, entry);
+        return entry;
+    }
+
+    private void remember(String id, Entry entry) {
+        synchronized (recent) {
+            recent.put(id, entry);
+        }
+    }
+
+    /**
+     * Removes the expired keys from the database, the expired keys in memory are ignored and evicted over time
+     */
+    private void removeExpired() {
+        try {
+            int removed = transactionTemplate.execute(status -> repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+            if (removed > 0) log.debug("{} expired idempotency keys were removed", removed);
+        } catch (RuntimeException e) {
+            log.warn("Unable to remove the expired idempotency keys: {}", e.getMessage());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(Entry entry, TypeReference<T> type) {
+        if (entry.response != null) return (T) entry.response;
+        try {
+            return objectMapper.readValue(entry.json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read a stored response", e);
+        }
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to store a response", e);
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(write(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A key of a request
+     *
+     * @param key is the value of the Idempotency-Key header
+     * @param id is the key prefixed with the scope
+     * @param fingerprint is the hash of the request body
+     */
+    public record Key(String key, String id, String fingerprint) {
+    }
+
+    /**
+     * A stored key
+     *
+     * @param fingerprint is the hash of the request body
+     * @param json is the response as JSON
+     * @param response is the response object, null if the entry was read from the database
+     * @param created is the time of the first request
+     */
+    private record Entry(String fingerprint, String json, Object response, LocalDateTime created) {
+    }
+
+}
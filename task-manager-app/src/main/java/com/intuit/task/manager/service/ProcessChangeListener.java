@@ -0,0 +1,27 @@
+package com.intuit.task.manager.service;
+
+import com.intuit.task.manager.entities.Process;
+import java.util.Collection;
+
+/**
+ * The interface of components that keep an in-memory view of the stored processes.
+ * The TaskServiceImpl notifies all listeners after the modifying transaction is committed.
+ * @see TaskServiceImpl
+ */
+public interface ProcessChangeListener {
+
+    /**
+     * Called after a new process has been stored
+     *
+     * @param process is the stored entity
+     */
+    void onAdded(Process process);
+
+    /**
+     * Called after processes have been removed (killed or evicted)
+     *
+     * @param processes are the removed entities
+     */
+    void onRemoved(Collection<Process> processes);
+
+}
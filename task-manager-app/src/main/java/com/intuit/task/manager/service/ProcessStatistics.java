@@ -0,0 +1,260 @@
+package com.intuit.task.manager.service;
+
+import com.intuit.task.manager.collections.LongObjectHashMap;
+import com.intuit.task.manager.dto.PriorityType;
+import com.intuit.task.manager.entities.Process;
+import com.intuit.task.manager.repo.ProcessRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.annotation.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Occupancy counters of the task manager.
+ *
+ * The counters are loaded at startup and then maintained incrementally from the notifications
+ * of the TaskServiceImpl, so reading them never touches the database. They only see the changes made by
+ * this instance, so they are reloaded periodically to pick up the changes of other instances and clients.
+ * @see ProcessChangeListener
+ */
+@Slf4j
+@Component
+public class ProcessStatistics implements ProcessChangeListener {
+
+    private final ProcessRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration resyncInterval;
+
+    /**
+     * The current counters, replaced as a whole by a resync.
+     * Modified under the monitor of the ProcessStatistics, the counters are read without locking.
+     */
+    private volatile Counters counters;
+
+    /**
+     * The changes notified while a resync is loading the database, replayed on the loaded counters.
+     * Null if no resync is in progress. Guarded by the monitor of the ProcessStatistics.
+     */
+    private List<Consumer<Counters>> pending;
+
+    private final Object resyncLock = new Object();
+
+    private final ScheduledExecutorService resyncExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "statistics-resync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Instantiates a new ProcessStatistics and loads the current state of the database
+     *
+     * @param repository the implementation of ProcessRepository
+     * @param transactionManager the transaction manager of the primary database
+     * @param resyncInterval how often the counters are reloaded from the database, zero disables the reloading
+     */
+    public ProcessStatistics(ProcessRepository repository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.task.manager.statistics.resync-interval:30s}") Duration resyncInterval) {
+        this.repository = repository;
+        // A read-write transaction is routed to the primary database, a replica may lag behind
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.resyncInterval = resyncInterval;
+        this.counters = load();
+        log.info("The statistics were loaded for {} processes", getTotal());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (resyncInterval.isZero()) return;
+        long interval = resyncInterval.toMillis();
+        resyncExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                resync();
+            } catch (RuntimeException e) {
+                log.warn("Unable to reload the statistics: {}", e.getMessage());
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        resyncExecutor.shutdownNow();
+    }
+
+    /**
+     * Reloads the counters from the database
+     * The changes notified while the database is read are applied to the loaded counters as well.
+     * Adding and removing are idempotent, so a change already seen by the load doesn't count twice.
+     */
+    public void resync() {
+        synchronized (resyncLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            Counters loaded;
+            try {
+                loaded = load();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pending.forEach(change -> change.accept(loaded));
+                pending = null;
+                long before = getTotal();
+                counters = loaded;
+                if (before != getTotal()) log.info("The statistics were resynchronized: {} processes instead of {}", getTotal(), before);
+            }
+        }
+    }
+
+    @Override
+    public void onAdded(Process process) {
+        Entry entry = new Entry(process.getCreated(), process.getPid(), process.getPriority());
+        apply(target -> target.add(entry));
+    }
+
+    @Override
+    public void onRemoved(Collection<Process> processes) {
+        apply(target -> processes.forEach(process -> target.remove(process.getPid())));
+    }
+
+    private synchronized void apply(Consumer<Counters> change) {
+        change.accept(counters);
+        if (pending != null) pending.add(change);
+    }
+
+    private Counters load() {
+        return transactionTemplate.execute(status -> {
+            Counters loaded = new Counters();
+            repository.forEachSummary(process ->
+                    loaded.add(new Entry(process.created(), process.pid(), process.priority())));
+            return loaded;
+        });
+    }
+
+    /**
+     * Checks whether a process exists according to the counters
+     *
+     * @param pid is the process id
+     * @return true if the process was added and hasn't been removed
+     */
+    public synchronized boolean contains(long pid) {
+        return counters.entries.containsKey(pid);
+    }
+
+    /**
+     * Getting the number of all processes
+     *
+     * @return the total number of processes
+     */
+    public long getTotal() {
+        AtomicLongArray counts = counters.counts;
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+        return total;
+    }
+
+    /**
+     * Getting the number of processes with the specified priority
+     *
+     * @param priority is the PriorityType
+     * @return the number of processes
+     */
+    public long getCount(PriorityType priority) {
+        return counters.counts.get(priority.ordinal());
+    }
+
+    /**
+     * Checks whether there are processes with a lower priority than the specified one
+     *
+     * @param priority is the PriorityType
+     * @return true if at least one process has a lower priority
+     */
+    public boolean hasLowerPriority(PriorityType priority) {
+        AtomicLongArray counts = counters.counts;
+        for (int i = 0; i < priority.ordinal(); i++) {
+            if (counts.get(i) > 0) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Getting the creation time of the oldest process with the specified priority
+     *
+     * @param priority is the PriorityType
+     * @return the creation time or null if there are no processes with this priority
+     */
+    public LocalDateTime getOldest(PriorityType priority) {
+        NavigableSet<Entry> entries = counters.byCreated.get(priority.ordinal());
+        try {
+            return entries.first().created();
+        } catch (NoSuchElementException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The counters and the entries they are maintained from
+     */
+    private static class Counters {
+
+        /**
+         * The number of processes by priority ordinal
+         */
+        private final AtomicLongArray counts = new AtomicLongArray(PriorityType.values().length);
+
+        /**
+         * The processes of each priority ordered by creation time, the first one is the oldest
+         */
+        private final List<NavigableSet<Entry>> byCreated = new ArrayList<>();
+
+        /**
+         * The entries by pid. A removed entity may be loaded from the database with a truncated
+         * creation time, so removal looks up the entry created when the process was added.
+         */
+        private final LongObjectHashMap<Entry> entries = new LongObjectHashMap<>();
+
+        Counters() {
+            for (PriorityType ignored : PriorityType.values()) byCreated.add(new ConcurrentSkipListSet<>());
+        }
+
+        void add(Entry entry) {
+            if (!entries.containsKey(entry.pid())) {
+                entries.put(entry.pid(), entry);
+                byCreated.get(entry.priority()).add(entry);
+                counts.incrementAndGet(entry.priority());
+            }
+        }
+
+        void remove(long pid) {
+            Entry entry = entries.remove(pid);
+            if (entry != null) {
+                byCreated.get(entry.priority()).remove(entry);
+                counts.decrementAndGet(entry.priority());
+            }
+        }
+    }
+
+    /**
+     * A process in the creation order
+     */
+    private record Entry(LocalDateTime created, long pid, int priority) implements Comparable<Entry> {
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = created.compareTo(other.created);
+            return result != 0 ? result : Long.compare(pid, other.pid);
+        }
+    }
+
+}
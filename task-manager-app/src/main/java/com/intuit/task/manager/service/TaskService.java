@@ -0,0 +1,193 @@
+package com.intuit.task.manager.service;
+
+import com.intuit.task.manager.dto.*;
+import java.io.*;
+import java.time.*;
+import java.util.List;
+
+/**
+ * The interface is responsible for the basic methods needed to create, receive and delete processes.
+ */
+public interface TaskService {
+
+    /**
+     * Adding a new process.
+     *
+     * @param task The process title.
+     * @param type The process creation type.
+     * @see CreatingType
+     * @param priority The process priority type.
+     * @see PriorityType
+     * @return Process-DTO with assigned identifier
+     * @see ProcessResponseData
+     */
+    ProcessResponseData addProcess(String task, CreatingType type, PriorityType priority);
+
+    /**
+     * Adding a batch of new processes in a single transaction.
+     * Each process is admitted according to its own CreatingType, a rejected process doesn't affect the others.
+     *
+     * @param requests are the processes to add
+     * @see AdmissionRequest
+     * @return the result for each request in the same order
+     * @see AdmissionResult
+     */
+    List<AdmissionResult> addProcesses(List<AdmissionRequest> requests);
+
+    /**
+     * Gets all processes.
+     *
+     * @param sort indicates the sorting type of the list.
+     * @see SortingType
+     * @return sorted list of all processes
+     * @see ProcessResponseData
+     */
+    List<ProcessResponseData> getAllProcesses(SortingType sort);
+
+    /**
+     * Get process.
+     *
+     * @param id is the unique process id
+     * @return the process with specified ID
+     * @see ProcessResponseData
+     */
+    ProcessResponseData getProcess(long id);
+
+    /**
+     * Gets a page of the processes created in a time range.
+     *
+     * @param from is the beginning of the range (inclusive) or null if the range is open
+     * @param to is the end of the range (exclusive) or null if the range is open
+     * @param page is the number of the page, starting from zero
+     * @param size is the size of the page
+     * @return a page of the processes sorted by date
+     * @see ProcessResponseData
+     */
+    List<ProcessResponseData> getProcessesCreatedBetween(LocalDateTime from, LocalDateTime to, int page, int size);
+
+    /**
+     * Kills all processes.
+     *
+     * @return the list of killed processes
+     * @see ProcessResponseData
+     */
+    List<ProcessResponseData> killAllProcesses();
+
+    /**
+     * Kills a process or list of processes
+     *
+     * @param list process ID or list of IDs
+     * @return the list of killed processes
+     * @see ProcessResponseData
+     */
+    List<ProcessResponseData> killProcess(long... list);
+
+    /**
+     * Kills all processes with the specified priority
+     *
+     * @param type is PriorityType
+     * @see PriorityType
+     * @return the list of killed processes
+     */
+    List<ProcessResponseData> killProcessByPriority(PriorityType type);
+
+    /**
+     * Kills all processes created before the specified time
+     *
+     * @param time is the end of the range (exclusive)
+     * @return the list of killed processes
+     * @see ProcessResponseData
+     */
+    List<ProcessResponseData> killProcessesOlderThan(LocalDateTime time);
+
+    /**
+     * Searches processes by title.
+     *
+     * @param query is the searched part of the title (case-insensitive)
+     * @param type indicates whether the title should start with or contain the query
+     * @see SearchType
+     * @param page is the number of the page, starting from zero
+     * @param size is the size of the page
+     * @return a page of the found processes sorted by pid
+     * @see ProcessResponseData
+     */
+    List<ProcessResponseData> searchProcesses(String query, SearchType type, int page, int size);
+
+    /**
+     * Gets the occupancy of the task manager: the total number of processes, the number and the oldest
+     * creation time by priority and the remaining capacity.
+     *
+     * @return the occupancy statistics
+     * @see StatisticsResponseData
+     */
+    StatisticsResponseData getStatistics();
+
+    /**
+     * Leases free processes to a worker.
+     * The processes are taken in priority order (the highest first), then by creation time. A process
+     * is free if it has never been claimed or its lease has expired.
+     *
+     * @param max is the maximum number of processes
+     * @param lease is the duration of the lease
+     * @return the lease with the claimed processes, the list is empty if there are no free processes
+     * @see LeaseResponseData
+     */
+    LeaseResponseData claimProcesses(int max, Duration lease);
+
+    /**
+     * Extends an active lease (heartbeat of a worker).
+     *
+     * @param leaseId is the identifier of the lease
+     * @param lease is the new duration of the lease, counted from now
+     * @return the lease with its processes
+     * @see LeaseResponseData
+     */
+    LeaseResponseData extendLease(String leaseId, Duration lease);
+
+    /**
+     * Acknowledges processes of an active lease, the acknowledged processes are removed.
+     *
+     * @param leaseId is the identifier of the lease
+     * @param list process IDs of the lease or none to acknowledge all processes of the lease
+     * @return a list of the removed processes
+     * @see ProcessResponseData
+     */
+    List<ProcessResponseData> ackProcesses(String leaseId, long... list);
+
+    /**
+     * Imports processes from a CSV file.
+     * The capacity is checked once for the whole file, the import is rejected entirely if it is exceeded.
+     *
+     * @param csv is the content of the file
+     * @return the number of imported processes
+     */
+    long importProcesses(InputStream csv);
+
+    /**
+     * Exports all processes to a CSV file sorted by ID.
+     *
+     * @param csv is the destination of the file
+     */
+    void exportProcesses(OutputStream csv);
+
+    /**
+     * Changes the maximum number of processes.
+     * After a decrease, the processes exceeding the new capacity are evicted in the background.
+     *
+     * @param capacity is the new capacity
+     * @param policy is the order in which the excess is evicted
+     * @see EvictionType
+     * @return the occupancy statistics after the change
+     * @see StatisticsResponseData
+     */
+    StatisticsResponseData changeCapacity(int capacity, EvictionType policy);
+
+    /**
+     * Gets the modification version of the stored processes.
+     * The value increases with every add, eviction and kill made by this instance.
+     *
+     * @return the current modification version
+     */
+    long getVersion();
+
+}
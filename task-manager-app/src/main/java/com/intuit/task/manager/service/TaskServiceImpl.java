@@ -0,0 +1,1001 @@
+package com.intuit.task.manager.service;
+
+import com.intuit.task.manager.collections.*;
+import com.intuit.task.manager.core.AdmissionPolicy;
+import com.intuit.task.manager.diagnostics.*;
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.entities.Process;
+import com.intuit.task.manager.entities.Title;
+import com.intuit.task.manager.exceptions.*;
+import com.intuit.task.manager.repo.*;
+import com.intuit.task.manager.search.SearchIndex;
+import com.intuit.task.manager.transfer.BulkTransfer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jmx.export.annotation.*;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.*;
+import javax.annotation.PreDestroy;
+import javax.persistence.*;
+import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * The implementation of TaskService
+ * @see TaskService
+ *
+ * Allows to execute the methods described by the interface.
+ */
+@Service
+@Slf4j
+@ManagedResource
+public class TaskServiceImpl implements TaskService {
+
+    /**
+     * The maximum number of IDs passed to a single query (PostgreSQL limits the number of bind parameters)
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    /**
+     * The order in which the processes are claimed: the highest priority first, then the oldest
+     */
+    private static final Comparator<Process> CLAIM_ORDER = Comparator.comparingInt(Process::getPriority).reversed()
+            .thenComparing(Process::getCreated);
+
+    /**
+     * The bounds of an open time range, both are supported by PostgreSQL and H2
+     */
+    private static final LocalDateTime MIN_CREATED = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_CREATED = LocalDateTime.of(9999, 12, 31, 23, 59);
+
+    private final ProcessRepository repository;
+    private final TitleDictionary titles;
+    private final SearchIndex searchIndex;
+    private final BulkTransfer bulkTransfer;
+    private final ProcessStatistics statistics;
+    private final List<ProcessChangeListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Used to detach the pages of the imported processes once the listeners have seen them
+     * @see TaskServiceImpl#notifyImported
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * The partitions of the processes table or null if the table isn't partitioned
+     * @see ProcessPartitions
+     */
+    private final ProcessPartitions partitions;
+
+    /**
+     *  The admission engine holding the maximum possible number of processes.
+     *  The capacity is a @ManagedResource and can be changed on the fly.
+     *  @see TaskServiceImpl#setMaxCapacity
+     */
+    private final AdmissionPolicy<Process> admission;
+
+    /**
+     * Whether the database supports FOR UPDATE SKIP LOCKED
+     * @see TaskServiceImpl#claimProcesses
+     */
+    private final boolean claimSkipLocked;
+
+    /**
+     * Parameters of the incremental eviction after the capacity has been decreased
+     * @see TaskServiceImpl#shrink
+     */
+    private final int shrinkBatchSize;
+    private final Duration shrinkPause;
+    private final EvictionType defaultShrinkPolicy;
+
+    /**
+     * The single thread that evicts the processes exceeding a decreased capacity
+     */
+    private final ExecutorService shrinkExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "capacity-shrink");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean shrinkScheduled = new AtomicBoolean();
+    private volatile EvictionType shrinkPolicy;
+
+    /**
+     * The number of processes evicted since the capacity was decreased last time
+     */
+    private final AtomicLong shrinkEvicted = new AtomicLong();
+
+    /**
+     * Instantiates a new TaskServiceImpl.
+     * During initialization, it compares the current number of saved processes and
+     * the maximum allowed and starts the eviction of the excess if it is exceeded.
+     *
+     * @param repository the implementation of ProcessRepository
+     * @see ProcessRepository
+     * @param store the database backend of the admission engine
+     * @see JpaProcessStore
+     * @param titles the dictionary of the process titles
+     * @see TitleDictionary
+     * @param searchIndex the index used to search processes by title
+     * @see SearchIndex
+     * @param bulkTransfer the implementation of the CSV import and export
+     * @see BulkTransfer
+     * @param statistics the occupancy counters
+     * @see ProcessStatistics
+     * @param listeners the components notified about every modification
+     * @see ProcessChangeListener
+     * @param partitions the partitions of the processes table, available if the table is partitioned
+     * @see ProcessPartitions
+     * @param transactionManager the manager of the eviction transactions
+     * @param shrinkBatchSize the maximum number of processes evicted in one transaction
+     * @param shrinkPause the pause between the eviction transactions
+     * @param shrinkPolicy the eviction order used when the capacity is decreased without specifying it
+     * @param claimSkipLocked whether the claims may skip the rows locked by concurrent claims
+     */
+    public TaskServiceImpl(ProcessRepository repository,
+                           JpaProcessStore store,
+                           TitleDictionary titles,
+                           SearchIndex searchIndex,
+                           BulkTransfer bulkTransfer,
+                           ProcessStatistics statistics,
+                           ObjectProvider<ProcessChangeListener> listeners,
+                           ObjectProvider<ProcessPartitions> partitions,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.task.manager.capacity.max:25}") int maxCapacity,
+                           @Value("${app.task.manager.capacity.shrink.batch-size:100}") int shrinkBatchSize,
+                           @Value("${app.task.manager.capacity.shrink.pause:50ms}") Duration shrinkPause,
+                           @Value("${app.task.manager.capacity.shrink.policy:FIFO}") EvictionType shrinkPolicy,
+                           @Value("${app.task.manager.claim.skip-locked:false}") boolean claimSkipLocked) {
+        this.repository = repository;
+        this.titles = titles;
+        this.searchIndex = searchIndex;
+        this.bulkTransfer = bulkTransfer;
+        this.statistics = statistics;
+        this.listeners = listeners.orderedStream().toList();
+        this.partitions = partitions.getIfAvailable();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.admission = new AdmissionPolicy<>(store, validateCapacity(maxCapacity));
+        this.shrinkBatchSize = shrinkBatchSize;
+        this.shrinkPause = shrinkPause;
+        this.defaultShrinkPolicy = shrinkPolicy;
+        this.claimSkipLocked = claimSkipLocked;
+        afterInitCheck();
+    }
+
+    /**
+     * The modification version of the stored processes.
+     * Starts from the startup time so that versions issued before a restart are not repeated.
+     * @see TaskServiceImpl#markModified
+     */
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Create a new process
+     * Calls the required save method based on the passed CreatingType parameter.
+     * A process that can't be admitted according to the occupancy counters is rejected
+     * without the admission transaction.
+     *
+     * @param task The process title.
+     * @param creatingType The process creation type.
+     * @see CreatingType
+     * @param priority The process priority type.
+     * @see PriorityType
+     * @return Process-DTO of the saving object
+     * @see ProcessResponseData
+     */
+    @Override
+    public ProcessResponseData addProcess(String task, CreatingType creatingType, PriorityType priority) {
+        rejectIfFull(creatingType, priority);
+        // A new title is stored before the admission transaction, so the transaction holds a single connection
+        Title title = titles.resolve(task);
+        return transactionTemplate.execute(status -> admit(new Process(title, priority), creatingType));
+    }
+
+    /**
+     * The rejection fast path
+     * The occupancy counters are authoritative for the rejection, it doesn't touch the database.
+     * The changes of other instances and clients are picked up when the counters are resynchronized,
+     * until then a process may be rejected although they have removed processes. A process accepted
+     * by the counters is admitted by the transaction as usual. The rejection is recorded as an AdmissionEvent.
+     *
+     * @throws MaximumCapacityExceededException if the capacity doesn't allow adding the next NAIVE process
+     * @throws UnableToApplyPriorityOrderException if there is no process with a lower priority to evict
+     * @param creatingType The process creation type.
+     * @param priority The process priority type.
+     */
+    private void rejectIfFull(CreatingType creatingType, PriorityType priority) {
+        AdmissionEvent event = new AdmissionEvent();
+        event.begin();
+        try {
+            admission.rejectIfFull(statistics.getTotal(), creatingType,
+                    creatingType == CreatingType.PRIORITY && statistics.hasLowerPriority(priority));
+        } catch (MaximumCapacityExceededException | UnableToApplyPriorityOrderException e) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setPolicy(creatingType.name());
+                event.setPriority(priority.name());
+                event.commit();
+            }
+            throw e;
+        }
+    }
+
+
+    /**
+     * Create a batch of new processes in a single transaction
+     * A process rejected by its CreatingType doesn't affect the others: the rejection happens
+     * before anything is written, and the exception doesn't leave the transactional method.
+     *
+     * @param requests are the processes to add
+     * @see AdmissionRequest
+     * @return the result for each request in the same order
+     * @see AdmissionResult
+     */
+    @Override
+    @Transactional
+    public List<AdmissionResult> addProcesses(List<AdmissionRequest> requests) {
+        List<AdmissionResult> results = new ArrayList<>(requests.size());
+        for (AdmissionRequest request : requests) {
+            try {
+                Process process = new Process(titles.resolve(request.task()), request.priority());
+                results.add(AdmissionResult.accepted(admit(process, request.type())));
+            } catch (MaximumCapacityExceededException | UnableToApplyPriorityOrderException e) {
+                results.add(AdmissionResult.rejected(e.getMessage()));
+            }
+        }
+        log.debug("A batch of {} processes was handled", requests.size());
+        return results;
+    }
+
+    /**
+     * Admits a process according to the passed CreatingType parameter.
+     * The decision is recorded as an AdmissionEvent.
+     *
+     * @param process is the entity to store in the database
+     * @throws MaximumCapacityExceededException if the capacity doesn't allow adding a NAIVE process
+     * @throws UnableToApplyPriorityOrderException if there is no process with a lower priority to evict
+     * @param creatingType The process creation type.
+     * @see CreatingType
+     * @see AdmissionPolicy
+     * @return Process-DTO of the saving object
+     * @see ProcessResponseData
+     * @see AdmissionEvent
+     */
+    private ProcessResponseData admit(Process process, CreatingType creatingType) {
+        AdmissionEvent event = new AdmissionEvent();
+        event.begin();
+        try {
+            PriorityType priority = PriorityType.values()[process.getPriority()];
+            AdmissionPolicy.Admission<Process> admitted = admission.admit(process, priority, creatingType);
+            if (admitted.evicted() != null) {
+                Process evicted = admitted.evicted();
+                event.setEvictedPid(evicted.getPid());
+                markRemoved(List.of(evicted));
+                log.debug("Task with PID {} was evicted", evicted.getPid());
+            }
+            ProcessResponseData result = saveAndReturn(admitted.process());
+            event.setAccepted(true);
+            event.setPid(result.getPid());
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setPolicy(creatingType.name());
+                event.setPriority(PriorityType.values()[process.getPriority()].name());
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Notifies the listeners about an object saved to the database
+     *
+     * @param process is the stored entity
+     * @see Process
+     * @return Process-DTO of the saving object
+     * @see ProcessResponseData
+     */
+    private ProcessResponseData saveAndReturn(Process process) {
+        markModified(() -> listeners.forEach(listener -> listener.onAdded(process)));
+        log.debug("Task with title \"{}\" and PID {} was created at {}", process.getTask(), process.getPid(), process.getCreated());
+        return entityToDto(process);
+    }
+
+    /**
+     * Getting a list of all processes
+     *
+     * @param sort indicates the sorting type of the list.
+     * @see SortingType
+     * @return a sorted list of all processes
+     * @see ProcessResponseData
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProcessResponseData> getAllProcesses(SortingType sort) {
+        ListEvent event = new ListEvent();
+        event.begin();
+        List<Process> result = switch (sort) {
+            case ID -> repository.getAllByOrderByPid();
+            case DATE -> repository.getAllByOrderByCreated();
+            case PRIORITY -> repository.getAllByOrderByPriority();
+        };
+        log.debug("Returned a list of all processes ({}). Sorted by {}.", result.size(), sort.name());
+        List<ProcessResponseData> response = result.stream().map(this::entityToDto).toList();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setSort(sort.name());
+            event.setRows(response.size());
+            event.commit();
+        }
+        return response;
+    }
+
+    /**
+     * Getting a process by its number
+     *
+     * @throws ProcessNotFoundException if the process with the specified number was not found
+     * @param id is the unique process id
+     * @return Process-DTO of the saving object
+     * @see ProcessResponseData
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProcessResponseData getProcess(long id) {
+        Process process = repository.getByPid(id);
+        if (process == null) throw new ProcessNotFoundException(String.format("Process with id %d wasn't found", id));
+        log.debug("Returned a process with id {}", id);
+        return entityToDto(process);
+    }
+
+    /**
+     * Getting a page of the processes created in a time range
+     * The range is read by an index range scan, the cost doesn't depend on the number of the other processes.
+     *
+     * @param from is the beginning of the range (inclusive) or null if the range is open
+     * @param to is the end of the range (exclusive) or null if the range is open
+     * @param page is the number of the page, starting from zero
+     * @param size is the size of the page
+     * @return a page of the processes sorted by date
+     * @see ProcessResponseData
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProcessResponseData> getProcessesCreatedBetween(LocalDateTime from, LocalDateTime to, int page, int size) {
+        ListEvent event = new ListEvent();
+        event.begin();
+        List<Process> result = repository.getCreatedBetween(from != null ? from : MIN_CREATED,
+                to != null ? to : MAX_CREATED, PageRequest.of(page, size));
+        log.debug("Returned {} processes created from {} to {}, page {}.", result.size(), from, to, page);
+        List<ProcessResponseData> response = result.stream().map(this::entityToDto).toList();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setSort("RANGE");
+            event.setRows(response.size());
+            event.commit();
+        }
+        return response;
+    }
+
+    /**
+     * Removing all objects from the database
+     *
+     * @return a list of all deleted objects
+     */
+    @Override
+    @Transactional
+    public List<ProcessResponseData> killAllProcesses() {
+        KillEvent event = new KillEvent();
+        event.begin();
+        List<Process> tasksToRemove = repository.getAllByOrderByCreated();
+        repository.deleteAllInBatch();
+        markRemoved(tasksToRemove);
+        commitKillEvent(event, "ALL", 0, tasksToRemove.size());
+        log.debug("Deleted all ({}) processes", tasksToRemove.size());
+        return tasksToRemove.stream().map(this::entityToDto).toList();
+    }
+
+    /**
+     * Deleting a single process or a list of processes
+     *
+     * @throws ProcessNotFoundException if at least one of the process wasn't found
+     * @param list process ID or list of IDs
+     * @return a list of all deleted objects
+     */
+    @Override
+    @Transactional
+    public List<ProcessResponseData> killProcess(long... list) {
+        KillEvent event = new KillEvent();
+        event.begin();
+
+        // Repeated IDs are removed once
+        LongHashSet unique = new LongHashSet(list.length);
+        LongArrayList pids = new LongArrayList(list.length);
+        for (long pid : list) {
+            if (unique.add(pid)) pids.add(pid);
+        }
+
+        // The processes are loaded with one query per chunk instead of one query per ID
+        LongObjectHashMap<Process> found = new LongObjectHashMap<>(pids.size());
+        for (int from = 0; from < pids.size(); from += ID_CHUNK_SIZE) {
+            int to = Math.min(from + ID_CHUNK_SIZE, pids.size());
+            repository.findAllById(pids.boxed(from, to)).forEach(task -> found.put(task.getPid(), task));
+        }
+
+        List<ProcessResponseData> result = new ArrayList<>(pids.size());
+        List<Process> remove = new ArrayList<>(pids.size());
+        for (int i = 0; i < pids.size(); i++) {
+            long pid = pids.get(i);
+            Process task = found.get(pid);
+            if (task == null) throw new ProcessNotFoundException(String.format("Process with id %d wasn't found", pid));
+            remove.add(task);
+            result.add(entityToDto(task));
+            log.trace("A process with ID {} has been marked for deletion", task.getPid());
+        }
+        for (int from = 0; from < remove.size(); from += ID_CHUNK_SIZE) {
+            repository.deleteAllInBatch(remove.subList(from, Math.min(from + ID_CHUNK_SIZE, remove.size())));
+        }
+        markRemoved(remove);
+        commitKillEvent(event, "IDS", list.length, remove.size());
+
+        log.debug("Processes deleted: {}", remove.size());
+        return result;
+    }
+
+    /**
+     * Deleting all processes with specified priority
+     * If the table is partitioned, the partition of the priority is locked, read and truncated.
+     *
+     * @param type is PriorityType
+     * @return a list of all deleted objects
+     */
+    @Override
+    @Transactional
+    public List<ProcessResponseData> killProcessByPriority(PriorityType type) {
+        if (partitions == null) {
+            long[] ids = repository.getAllIdsByPriority(type.ordinal());
+            return killProcess(ids);
+        }
+        KillEvent event = new KillEvent();
+        event.begin();
+        partitions.lock(type);
+        List<Process> remove = repository.getAllByPriorityOrderByCreated(type.ordinal());
+        partitions.truncate(type);
+        markRemoved(remove);
+        commitKillEvent(event, "PRIORITY", 0, remove.size());
+        log.debug("Deleted all ({}) processes with {} priority", remove.size(), type.name());
+        return remove.stream().map(this::entityToDto).toList();
+    }
+
+    /**
+     * Deleting all processes created before the specified time
+     * The processes of the range are locked and read by an index range scan, then deleted by their IDs
+     * with one statement per chunk. A process stored after the lock isn't deleted even if its ID is lower than
+     * the IDs of the locked ones, because the IDs are assigned at the insertion, not at the commit.
+     * If the table is partitioned, the days that are entirely in the range are read like the rest,
+     * then detached at the end of the transaction and dropped after the commit instead of being deleted.
+     *
+     * @param time is the end of the range (exclusive)
+     * @return a list of all deleted objects
+     */
+    @Override
+    @Transactional
+    public List<ProcessResponseData> killProcessesOlderThan(LocalDateTime time) {
+        KillEvent event = new KillEvent();
+        event.begin();
+        List<String> expired = partitions != null ? partitions.lockBefore(time) : List.of();
+        List<Process> remove = repository.getCreatedBefore(time);
+
+        // The processes of the expired days are removed with their partitions
+        Set<String> dropped = new HashSet<>(expired);
+        List<Process> delete = dropped.isEmpty() ? remove : remove.stream()
+                .filter(process -> !dropped.contains(partitions.dailyPartition(process)))
+                .toList();
+        for (int from = 0; from < delete.size(); from += ID_CHUNK_SIZE) {
+            repository.deleteAllInBatch(delete.subList(from, Math.min(from + ID_CHUNK_SIZE, delete.size())));
+        }
+        if (!expired.isEmpty()) partitions.detachAndDrop(expired);
+        markRemoved(remove);
+        commitKillEvent(event, "OLDER_THAN", 0, remove.size());
+        log.debug("Deleted {} processes created before {}", remove.size(), time);
+        return remove.stream().map(this::entityToDto).toList();
+    }
+
+    /**
+     * Searching processes by title
+     *
+     * @param query is the searched part of the title
+     * @param type indicates whether the title should start with or contain the query
+     * @see SearchType
+     * @param page is the number of the page, starting from zero
+     * @param size is the size of the page
+     * @return a page of the found processes sorted by pid
+     * @see ProcessResponseData
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProcessResponseData> searchProcesses(String query, SearchType type, int page, int size) {
+        ListEvent event = new ListEvent();
+        event.begin();
+        List<Process> result = searchIndex.search(query, type, page, size);
+        log.debug("Found {} processes by query \"{}\" ({}), page {}.", result.size(), query, type.name(), page);
+        List<ProcessResponseData> response = result.stream().map(this::entityToDto).toList();
+        event.end();
+        if (event.shouldCommit()) {
+            event.setSort("SEARCH");
+            event.setRows(response.size());
+            event.commit();
+        }
+        return response;
+    }
+
+    /**
+     * Leasing free processes to a worker
+     * On PostgreSQL the candidates are selected and leased by one statement with FOR UPDATE SKIP LOCKED,
+     * so concurrent workers get disjoint sets of processes without waiting for each other. Otherwise the
+     * candidates are locked with FOR UPDATE and leased by a second statement.
+     *
+     * @param max is the maximum number of processes
+     * @param lease is the duration of the lease
+     * @return the lease with the claimed processes
+     * @see LeaseResponseData
+     */
+    @Override
+    @Transactional
+    public LeaseResponseData claimProcesses(int max, Duration lease) {
+        String leaseId = UUID.randomUUID().toString();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expires = now.plus(lease);
+
+        List<Process> claimed;
+        if (claimSkipLocked) {
+            claimed = new ArrayList<>(repository.claimSkipLocked(leaseId, expires, now, max));
+            claimed.sort(CLAIM_ORDER);
+        } else {
+            claimed = repository.getClaimable(now, PageRequest.of(0, max));
+            if (!claimed.isEmpty()) repository.lease(claimed.stream().map(Process::getPid).toList(), leaseId, expires);
+        }
+        log.debug("{} processes were leased until {} ({})", claimed.size(), expires, leaseId);
+        return leaseToDto(leaseId, expires, claimed);
+    }
+
+    /**
+     * Extending an active lease
+     *
+     * @throws LeaseNotFoundException if the lease doesn't exist or has expired
+     * @param leaseId is the identifier of the lease
+     * @param lease is the new duration of the lease, counted from now
+     * @return the lease with its processes
+     * @see LeaseResponseData
+     */
+    @Override
+    @Transactional
+    public LeaseResponseData extendLease(String leaseId, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expires = now.plus(lease);
+        if (repository.extendLease(leaseId, expires, now) == 0) {
+            throw new LeaseNotFoundException(String.format("Lease with id %s wasn't found or has expired", leaseId));
+        }
+        log.debug("The lease {} was extended until {}", leaseId, expires);
+        return leaseToDto(leaseId, expires, repository.getLeased(leaseId, now));
+    }
+
+    /**
+     * Acknowledging processes of an active lease
+     *
+     * @throws LeaseNotFoundException if the lease doesn't exist or has expired
+     * @throws ProcessNotFoundException if one of the processes doesn't belong to the lease
+     * @param leaseId is the identifier of the lease
+     * @param list process IDs of the lease or none to acknowledge all processes of the lease
+     * @return a list of the removed processes
+     */
+    @Override
+    @Transactional
+    public List<ProcessResponseData> ackProcesses(String leaseId, long... list) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Process> leased = repository.getLeased(leaseId, now);
+        if (leased.isEmpty()) {
+            throw new LeaseNotFoundException(String.format("Lease with id %s wasn't found or has expired", leaseId));
+        }
+
+        List<Process> remove = leased;
+        if (list.length > 0) {
+            LongObjectHashMap<Process> byPid = new LongObjectHashMap<>(leased.size());
+            leased.forEach(process -> byPid.put(process.getPid(), process));
+            LongHashSet unique = new LongHashSet(list.length);
+            remove = new ArrayList<>(list.length);
+            for (long pid : list) {
+                Process process = byPid.get(pid);
+                if (process == null) {
+                    throw new ProcessNotFoundException(String.format("Process with id %d wasn't found in lease %s", pid, leaseId));
+                }
+                if (unique.add(pid)) remove.add(process);
+            }
+        }
+        // The processes were read without locks, a process is deleted only if it's still in the lease
+        List<Long> pids = remove.stream().map(Process::getPid).toList();
+        if (repository.deleteLeased(pids, leaseId, now) < pids.size()) {
+            throw new LeaseNotFoundException(String.format("Lease with id %s has expired", leaseId));
+        }
+        markRemoved(remove);
+        log.debug("{} processes of the lease {} were acknowledged", remove.size(), leaseId);
+        return remove.stream().map(this::entityToDto).toList();
+    }
+
+    /**
+     * Importing processes from a CSV file
+     * The rows are streamed into the database in one transaction, then the capacity is checked once.
+     * The listeners learn about the imported processes page by page after the commit.
+     *
+     * @throws MaximumCapacityExceededException if the imported processes don't fit the capacity
+     * @param csv is the content of the file
+     * @return the number of imported processes
+     */
+    @Override
+    @Transactional
+    public long importProcesses(InputStream csv) {
+        long lastPid = repository.getMaxPid();
+        long imported = bulkTransfer.importProcesses(csv);
+        long total = repository.count();
+        if (total > getMaxCapacity()) {
+            throw new MaximumCapacityExceededException(String.format("The import of %d processes exceeds " +
+                    "the maximum capacity (%d), %d processes are already stored", imported, getMaxCapacity(), total - imported));
+        }
+        if (imported > 0) {
+            long maxPid = repository.getMaxPid();
+            markModified(() -> notifyImported(lastPid, maxPid));
+        }
+        log.info("{} processes were imported", imported);
+        return imported;
+    }
+
+    /**
+     * Exporting all processes to a CSV file
+     *
+     * @param csv is the destination of the file
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportProcesses(OutputStream csv) {
+        bulkTransfer.exportProcesses(csv);
+    }
+
+    /**
+     * Notifies the listeners about the imported processes
+     * The notification runs after the commit while the persistence context of the transaction is still open,
+     * so every page is detached once it has been seen and the memory doesn't depend on the size of the file.
+     *
+     * @param lastPid is the greatest ID before the import
+     * @param maxPid is the greatest ID after the import, the processes added later are announced by their own addition
+     */
+    private void notifyImported(long lastPid, long maxPid) {
+        List<Process> page;
+        while (!(page = repository.findTop1000ByPidGreaterThanAndPidLessThanEqualOrderByPid(lastPid, maxPid)).isEmpty()) {
+            page.forEach(process -> listeners.forEach(listener -> listener.onAdded(process)));
+            lastPid = page.get(page.size() - 1).getPid();
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * Getting the occupancy of the task manager
+     * The values are taken from the incrementally maintained counters without querying the database.
+     *
+     * @return the occupancy statistics
+     * @see StatisticsResponseData
+     */
+    @Override
+    public StatisticsResponseData getStatistics() {
+        Map<PriorityType, StatisticsResponseData.PriorityStatistics> priorities = new EnumMap<>(PriorityType.class);
+        for (PriorityType priority : PriorityType.values()) {
+            priorities.put(priority, StatisticsResponseData.PriorityStatistics.builder()
+                    .count(statistics.getCount(priority))
+                    .oldest(statistics.getOldest(priority))
+                    .build());
+        }
+        long total = statistics.getTotal();
+        return StatisticsResponseData.builder()
+                .total(total)
+                .capacity(getMaxCapacity())
+                .remaining(Math.max(0, getMaxCapacity() - total))
+                .excess(getShrinkExcess())
+                .evictedByShrink(getShrinkEvicted())
+                .priorities(priorities)
+                .build();
+    }
+
+    /**
+     * Getting the modification version of the stored processes
+     *
+     * @return the current modification version
+     */
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Notifies the listeners about removed processes
+     *
+     * @param processes are the removed entities
+     */
+    private void markRemoved(List<Process> processes) {
+        if (!processes.isEmpty()) markModified(() -> listeners.forEach(listener -> listener.onRemoved(processes)));
+    }
+
+    /**
+     * Notifies the listeners and increases the modification version.
+     * Inside a transaction it happens only after the commit, so a reader
+     * can never see the new version together with the old data.
+     *
+     * @param notification is the call of the listeners
+     */
+    private void markModified(Runnable notification) {
+        Runnable action = () -> {
+            try {
+                notification.run();
+            } catch (RuntimeException e) {
+                log.error("Unable to notify about the modification of processes", e);
+            }
+            version.incrementAndGet();
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Completes a KillEvent if it is enabled and exceeds the threshold
+     *
+     * @param event is the event started at the beginning of the operation
+     * @param kind is IDS, ALL, PRIORITY, OLDER_THAN or SHRINK
+     * @param requested is the number of requested IDs
+     * @param size is the number of removed processes
+     * @see KillEvent
+     */
+    private void commitKillEvent(KillEvent event, String kind, int requested, int size) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.setKind(kind);
+            event.setRequested(requested);
+            event.setSize(size);
+            event.commit();
+        }
+    }
+
+    /**
+     * Converts a lease to an DTO
+     *
+     * @param leaseId is the identifier of the lease
+     * @param expires is the expiration time of the lease
+     * @param processes are the leased entities
+     * @return a Lease-DTO
+     * @see LeaseResponseData
+     */
+    private LeaseResponseData leaseToDto(String leaseId, LocalDateTime expires, List<Process> processes) {
+        return LeaseResponseData.builder()
+                .id(leaseId)
+                .expires(expires)
+                .processes(processes.stream().map(this::entityToDto).toList())
+                .build();
+    }
+
+    /**
+     * Converts an entity to an DTO
+     *
+     * @param data is a Process entity
+     * @return a Process-DTO
+     * @see ProcessResponseData
+     */
+    private ProcessResponseData entityToDto(Process data) {
+        log.trace("Process with id {} was converted to DTO for Response", data.getPid());
+        return ProcessResponseData.builder()
+                .pid(data.getPid())
+                .task(data.getTask())
+                .created(data.getCreated())
+                .priority(PriorityType.values()[data.getPriority()])
+                .build();
+    }
+
+    /**
+     * Getting the current capacity size
+     * Is a @ManagedResource and can be retrieved on the fly
+     *
+     * @return the current capacity size
+     */
+    @ManagedOperation
+    public int getMaxCapacity() {
+        return admission.getCapacity();
+    }
+
+    /**
+     * Sets a new capacity value, the excess is evicted in the default order
+     * It is a @ManagedResource and can be changed on the fly.
+     *
+     * @throws IllegalArgumentException if the new value isn't greater than zero
+     * @param maxCapacity is a new capacity value
+     * @see TaskServiceImpl#changeCapacity
+     */
+    @ManagedOperation
+    public void setMaxCapacity(int maxCapacity) {
+        changeCapacity(maxCapacity, defaultShrinkPolicy);
+    }
+
+    /**
+     * Sets a new capacity value, the excess is evicted in the specified order
+     * It is a @ManagedResource and can be changed on the fly.
+     *
+     * @throws IllegalArgumentException if the new value isn't greater than zero or the policy is unknown
+     * @param maxCapacity is a new capacity value
+     * @param policy is FIFO or PRIORITY
+     */
+    @ManagedOperation
+    public void shrinkCapacity(int maxCapacity, String policy) {
+        changeCapacity(maxCapacity, EvictionType.valueOf(policy.toUpperCase()));
+    }
+
+    /**
+     * Changing the capacity
+     * An increase takes effect immediately. After a decrease new processes are admitted against the new value
+     * right away, while the processes exceeding it are evicted in the background in small batches.
+     *
+     * @throws IllegalArgumentException if the new value isn't greater than zero
+     * @param capacity is a new capacity value
+     * @param policy is the order of the eviction
+     * @see EvictionType
+     * @return the occupancy statistics after the change
+     * @see StatisticsResponseData
+     */
+    @Override
+    public StatisticsResponseData changeCapacity(int capacity, EvictionType policy) {
+        if (capacity <= 0) {
+            String excMessage = String.format("The new capacity (%d) must be greater than zero", capacity);
+            log.error(excMessage);
+            throw new IllegalArgumentException(excMessage);
+        }
+        int previous = admission.getCapacity();
+        admission.setCapacity(capacity);
+        log.info("The capacity has been changed. The new value is {}, the previous value is {}.", capacity, previous);
+        if (capacity < previous) startShrink(policy);
+        return getStatistics();
+    }
+
+    /**
+     * Getting the number of processes that exceed the capacity and wait for the eviction
+     * Is a @ManagedResource and can be retrieved on the fly
+     *
+     * @return the number of processes above the capacity
+     */
+    @ManagedAttribute
+    public long getShrinkExcess() {
+        return Math.max(0, statistics.getTotal() - getMaxCapacity());
+    }
+
+    /**
+     * Getting the number of processes evicted since the capacity was decreased last time
+     * Is a @ManagedResource and can be retrieved on the fly
+     *
+     * @return the number of evicted processes
+     */
+    @ManagedAttribute
+    public long getShrinkEvicted() {
+        return shrinkEvicted.get();
+    }
+
+    /**
+     * Schedules the eviction of the processes exceeding the capacity
+     *
+     * @param policy is the order of the eviction
+     */
+    private void startShrink(EvictionType policy) {
+        shrinkPolicy = policy;
+        if (shrinkScheduled.compareAndSet(false, true)) {
+            shrinkEvicted.set(0);
+            shrinkExecutor.execute(this::shrink);
+        }
+    }
+
+    /**
+     * Evicts the excess batch by batch until the number of processes fits the capacity
+     * Each batch is a separate short transaction followed by a pause, so the foreground
+     * requests are never blocked for long.
+     */
+    private void shrink() {
+        try {
+            int evicted;
+            do {
+                shrinkScheduled.set(false);
+                evicted = transactionTemplate.execute(status -> evictExcess(shrinkPolicy));
+                shrinkEvicted.addAndGet(evicted);
+                if (evicted > 0) Thread.sleep(shrinkPause.toMillis());
+            } while (evicted > 0 || shrinkScheduled.get());
+            log.info("The capacity shrink has finished, {} processes were evicted", shrinkEvicted.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("The capacity shrink has failed", e);
+        } finally {
+            shrinkScheduled.set(false);
+        }
+    }
+
+    /**
+     * Evicts one batch of the processes exceeding the capacity
+     *
+     * @param policy is the order of the eviction
+     * @return the number of evicted processes
+     */
+    private int evictExcess(EvictionType policy) {
+        KillEvent event = new KillEvent();
+        event.begin();
+        long excess = repository.count() - getMaxCapacity();
+        if (excess <= 0) return 0;
+        int limit = (int) Math.min(excess, shrinkBatchSize);
+        List<Process> victims = switch (policy) {
+            case FIFO -> repository.getOldest(limit);
+            case PRIORITY -> repository.getOldestWithLowestPriority(limit);
+        };
+        repository.deleteAllInBatch(victims);
+        markRemoved(victims);
+        commitKillEvent(event, "SHRINK", 0, victims.size());
+        log.debug("{} processes exceeding the capacity were evicted ({})", victims.size(), policy.name());
+        return victims.size();
+    }
+
+    /**
+     * Stops the capacity shrink
+     */
+    @PreDestroy
+    public void shutdown() {
+        shrinkExecutor.shutdownNow();
+    }
+
+    /**
+     * Capacity check after initialization
+     *
+     * In case of launching an application with a set capacity parameter, whose level is lower than
+     * the current number of processes, the excess is evicted in the background.
+     *
+     */
+    private void afterInitCheck() {
+        long count = repository.count();
+        if (count > getMaxCapacity()) {
+            log.info("The number of processes saved before restarting the application {} exceeds the " +
+                    "current maximum allowed setting {}. " +
+                    "The excess will be evicted in the background ({}).", count, getMaxCapacity(), defaultShrinkPolicy.name());
+            startShrink(defaultShrinkPolicy);
+        }
+    }
+
+    /**
+     * Checks that the configured capacity is greater than zero
+     *
+     * @throws IllegalArgumentException if the capacity isn't greater than zero
+     * @param capacity is the value of the app.task.manager.capacity.max parameter
+     * @return the checked capacity
+     */
+    private static int validateCapacity(int capacity) {
+        if (capacity <= 0) {
+            String excMessage = String.format("Capacity (%d) must be greater than zero. " +
+                    "Check the app.task.manager.capacity.max parameter.", capacity);
+            log.error(excMessage);
+            throw new IllegalArgumentException(excMessage);
+        }
+        return capacity;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.intuit.task.manager.throttling;
+
+/**
+ * The adaptive limit of requests in flight (AIMD).
+ *
+ * While requests complete within the target latency, the limit grows additively (by one per "limit"
+ * completed requests). A slow or failed request decreases the limit multiplicatively, so the number
+ * of queued requests follows the actual capacity of the database instead of a fixed pool size.
+ */
+public class ConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private double limit;
+    private int inFlight;
+
+    /**
+     * Instantiates a new ConcurrencyLimit
+     *
+     * @param initialLimit is the starting limit
+     * @param minLimit is the limit that is never decreased further
+     * @param maxLimit is the limit that is never increased further
+     * @param targetLatencyNanos is the latency above which the limit is decreased
+     */
+    public ConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format("Invalid concurrency limit: initial %d, min %d, max %d",
+                    initialLimit, minLimit, maxLimit));
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Admits a request if the limit allows it
+     *
+     * @return true if the request was admitted and release() must be called after it completes
+     */
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) return false;
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Completes an admitted request and adjusts the limit
+     *
+     * @param latencyNanos is the duration of the request
+     * @param failed indicates that the request failed because of the server
+     */
+    public synchronized void release(long latencyNanos, boolean failed) {
+        inFlight--;
+        if (failed || latencyNanos > targetLatencyNanos) {
+            limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        } else if (inFlight + 1 >= (int) limit) {
+            // The limit is only increased when it is actually reached
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Getting the current limit
+     *
+     * @return the number of requests allowed in flight
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+}
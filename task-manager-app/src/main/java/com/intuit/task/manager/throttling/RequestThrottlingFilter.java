@@ -0,0 +1,137 @@
+package com.intuit.task.manager.throttling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuit.task.manager.dto.ErrorResponseData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.*;
+import org.springframework.web.filter.OncePerRequestFilter;
+import javax.servlet.*;
+import javax.servlet.http.*;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the TaskController.
+ *
+ * Every request must pass the token bucket of its client, the global token bucket and the adaptive
+ * concurrency limit of its class (reads or writes). A rejected request is answered immediately with
+ * 429 status and the Retry-After header, so it never waits for a Tomcat worker or a JDBC connection.
+ * A client is identified by its remote address, the client header is only trusted from the configured proxies.
+ * @see ThrottlingProperties
+ */
+@Slf4j
+public class RequestThrottlingFilter extends OncePerRequestFilter {
+
+    private final ThrottlingProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Limits reads;
+    private final Limits writes;
+
+    public RequestThrottlingFilter(ThrottlingProperties properties, ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.reads = new Limits(properties.getRead());
+        this.writes = new Limits(properties.getWrite());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean isRead = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+        Limits limits = isRead ? reads : writes;
+
+        // The client bucket is checked first, so a client over its limit doesn't spend the global budget
+        TokenBucket client = limits.bucketOf(clientOf(request));
+        long waitNanos = client.tryAcquire();
+        if (waitNanos == 0) {
+            waitNanos = limits.global.tryAcquire();
+            if (waitNanos > 0) client.refund();
+        }
+        if (waitNanos > 0) {
+            reject(response, waitNanos, "The request rate limit is exceeded");
+            return;
+        }
+
+        if (!limits.concurrency.tryAcquire()) {
+            reject(response, TimeUnit.SECONDS.toNanos(1), "Too many requests are being processed");
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limits.concurrency.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Getting the identifier of the client
+     *
+     * @param request is the current request
+     * @return the value of the client header if the request came from a trusted proxy, otherwise the remote address
+     */
+    private String clientOf(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!properties.getTrustedProxies().contains(address)) return address;
+        String client = request.getHeader(properties.getClientHeader());
+        return client != null ? client : address;
+    }
+
+    /**
+     * Writes the 429 response
+     *
+     * @param response is the current response
+     * @param waitNanos is the time after which the request may be repeated
+     * @param message is the error message
+     */
+    private void reject(HttpServletResponse response, long waitNanos, String message) throws IOException {
+        log.debug(message);
+        long retryAfter = Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponseData(message));
+    }
+
+    /**
+     * The limits of one class of requests
+     */
+    private class Limits {
+
+        private final ThrottlingProperties.Budget budget;
+        private final TokenBucket global;
+        private final ConcurrencyLimit concurrency;
+
+        /**
+         * The buckets in the order of access, the least recently seen client is dropped when the map is full
+         */
+        private final Map<String, TokenBucket> clients = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > properties.getMaxClients();
+            }
+        };
+
+        Limits(ThrottlingProperties.Budget budget) {
+            this.budget = budget;
+            this.global = new TokenBucket(budget.getGlobalRate(), budget.getGlobalBurst());
+            this.concurrency = new ConcurrencyLimit(budget.getInitialConcurrency(), budget.getMinConcurrency(),
+                    budget.getMaxConcurrency(), budget.getTargetLatency().toNanos());
+        }
+
+        /**
+         * Getting the bucket of a client
+         * The number of buckets never exceeds maxClients, the lookup and the eviction take constant time.
+         *
+         * @param client is the client identifier
+         * @return the token bucket of the client
+         */
+        synchronized TokenBucket bucketOf(String client) {
+            return clients.computeIfAbsent(client, key -> new TokenBucket(budget.getClientRate(), budget.getClientBurst()));
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.intuit.task.manager.throttling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Parameters of the admission control (app.task.manager.throttling.*).
+ * Reads and writes have separate budgets, so listings stay responsive during write storms.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.task.manager.throttling")
+public class ThrottlingProperties {
+
+    /**
+     * The header identifying a client behind a trusted proxy
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * The addresses of the proxies whose client header is trusted,
+     * the clients of the other addresses are identified by the address itself
+     */
+    private Set<String> trustedProxies = new HashSet<>();
+
+    /**
+     * The maximum number of tracked clients, the least recently seen ones are forgotten
+     */
+    private int maxClients = 10_000;
+
+    private Budget read = new Budget(2_000, 4_000, 200, 400, 64, 8, 256, Duration.ofMillis(200));
+    private Budget write = new Budget(500, 1_000, 50, 100, 16, 2, 64, Duration.ofMillis(100));
+
+    /**
+     * The budget of one class of requests
+     */
+    @Data
+    public static class Budget {
+
+        /**
+         * Requests per second of all clients together and the allowed burst
+         */
+        private double globalRate;
+        private double globalBurst;
+
+        /**
+         * Requests per second of one client and the allowed burst
+         */
+        private double clientRate;
+        private double clientBurst;
+
+        /**
+         * The adaptive limit of requests in flight
+         * @see ConcurrencyLimit
+         */
+        private int initialConcurrency;
+        private int minConcurrency;
+        private int maxConcurrency;
+        private Duration targetLatency;
+
+        public Budget() {
+        }
+
+        public Budget(double globalRate, double globalBurst, double clientRate, double clientBurst,
+                      int initialConcurrency, int minConcurrency, int maxConcurrency, Duration targetLatency) {
+            this.globalRate = globalRate;
+            this.globalBurst = globalBurst;
+            this.clientRate = clientRate;
+            this.clientBurst = clientBurst;
+            this.initialConcurrency = initialConcurrency;
+            this.minConcurrency = minConcurrency;
+            this.maxConcurrency = maxConcurrency;
+            this.targetLatency = targetLatency;
+        }
+    }
+
+}
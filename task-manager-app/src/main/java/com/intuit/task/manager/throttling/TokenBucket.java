@@ -0,0 +1,57 @@
+package com.intuit.task.manager.throttling;
+
+/**
+ * The token bucket rate limiter.
+ * The bucket holds up to "burst" tokens and is refilled with "rate" tokens per second, each request takes one token.
+ */
+public class TokenBucket {
+
+    private final double rate;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    /**
+     * Instantiates a new full TokenBucket
+     *
+     * @param rate is the number of tokens added per second
+     * @param burst is the maximum number of tokens
+     */
+    public TokenBucket(double rate, double burst) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException(String.format("Invalid token bucket: rate %s, burst %s", rate, burst));
+        }
+        this.rate = rate;
+        this.burst = burst;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Takes a token if there is one
+     *
+     * @return zero if the token was taken, otherwise the time in nanoseconds until the next token is available
+     */
+    public synchronized long tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / rate * 1e9);
+    }
+
+    /**
+     * Returns a token taken by tryAcquire(), e.g. when the request was rejected by another limit
+     */
+    public synchronized void refund() {
+        tokens = Math.min(burst, tokens + 1);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * rate / 1e9);
+        refilledAt = now;
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.intuit.task.manager.transfer;
+
+import com.intuit.task.manager.repo.TitleDictionary;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.*;
+import org.springframework.stereotype.Component;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+
+/**
+ * The bulk transfer through batched JDBC statements (used with H2 or other databases without COPY).
+ *
+ * The rows are inserted with one prepared statement sent in batches, the export reads the table
+ * with a cursor, so neither direction keeps the whole file in memory. The titles are resolved by the TitleDictionary,
+ * so only a new title costs a query.
+ */
+@Component
+@ConditionalOnProperty(name = "app.task.manager.transfer.method", havingValue = "batch", matchIfMissing = true)
+public class BatchBulkTransfer implements BulkTransfer {
+
+    private static final String INSERT = "INSERT INTO processes (title_id, priority, created) VALUES (?, ?, ?)";
+    private static final String SELECT = "SELECT p.pid, t.task, p.priority, p.created FROM processes p " +
+            "JOIN titles t ON t.id = p.title_id ORDER BY p.pid";
+
+    /**
+     * The number of rows sent to the database at once, also used as the fetch size of the export
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TitleDictionary titles;
+
+    public BatchBulkTransfer(JdbcTemplate jdbcTemplate, TitleDictionary titles) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.titles = titles;
+    }
+
+    @Override
+    public long importProcesses(InputStream csv) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                ProcessCsv reader = new ProcessCsv(csv);
+                long rows = 0;
+                ProcessCsv.Row row;
+                while ((row = reader.next()) != null) {
+                    statement.setInt(1, titles.resolve(row.task()).getId());
+                    statement.setInt(2, row.priority());
+                    statement.setTimestamp(3, Timestamp.valueOf(row.created()));
+                    statement.addBatch();
+                    if (++rows % BATCH_SIZE == 0) statement.executeBatch();
+                }
+                if (rows % BATCH_SIZE != 0) statement.executeBatch();
+                return rows;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void exportProcesses(OutputStream csv) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(csv, StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder(256);
+        try {
+            writer.write(ProcessCsv.HEADER);
+            writer.write('\n');
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT);
+                statement.setFetchSize(BATCH_SIZE);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> {
+                line.setLength(0);
+                ProcessCsv.appendExportRow(line, resultSet.getLong(1), new ProcessCsv.Row(
+                        resultSet.getString(2), resultSet.getInt(3), resultSet.getTimestamp(4).toLocalDateTime()));
+                try {
+                    writer.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
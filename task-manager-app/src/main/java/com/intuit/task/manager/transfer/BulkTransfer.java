@@ -0,0 +1,32 @@
+package com.intuit.task.manager.transfer;
+
+import java.io.*;
+
+/**
+ * The interface of the bulk import and export of processes in CSV.
+ *
+ * The file has a header line and the columns pid, task, priority and created. On import the pid is ignored
+ * (new identifiers are assigned), the created column is optional. Both directions stream the rows, so the
+ * memory consumption doesn't depend on the size of the file. The implementation is selected with the
+ * app.task.manager.transfer.method property.
+ * @see ProcessCsv
+ */
+public interface BulkTransfer {
+
+    /**
+     * Inserts all rows of a file within the current transaction
+     *
+     * @throws com.intuit.task.manager.exceptions.InvalidImportFileException if the file can't be parsed
+     * @param csv is the content of the file
+     * @return the number of inserted rows
+     */
+    long importProcesses(InputStream csv);
+
+    /**
+     * Writes all stored processes sorted by ID
+     *
+     * @param csv is the destination of the file
+     */
+    void exportProcesses(OutputStream csv);
+
+}
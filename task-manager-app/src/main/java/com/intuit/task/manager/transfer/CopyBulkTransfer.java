@@ -0,0 +1,109 @@
+package com.intuit.task.manager.transfer;
+
+import com.intuit.task.manager.dto.PriorityType;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.*;
+import org.springframework.stereotype.Component;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * The bulk transfer through the PostgreSQL COPY protocol.
+ *
+ * The rows are streamed to the server in chunks of CSV over the connection of the current transaction,
+ * which avoids parsing and planning an INSERT for every row. They are copied into a temporary table first,
+ * then the new titles and the processes referencing them are inserted by two statements.
+ * The export is produced by the server itself.
+ */
+@Component
+@ConditionalOnProperty(name = "app.task.manager.transfer.method", havingValue = "copy")
+public class CopyBulkTransfer implements BulkTransfer {
+
+    /**
+     * The rows of the file, the line keeps the order of the file for the pids
+     */
+    private static final String CREATE_STAGING = "CREATE TEMPORARY TABLE IF NOT EXISTS processes_import "
+            + "(line bigserial, task text NOT NULL, priority integer NOT NULL, created timestamp NOT NULL) ON COMMIT DROP";
+
+    private static final String COPY_IN = "COPY processes_import (task, priority, created) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String INSERT_TITLES = "INSERT INTO titles (task) SELECT DISTINCT task FROM processes_import "
+            + "ON CONFLICT (task) DO NOTHING";
+
+    private static final String INSERT_PROCESSES = "INSERT INTO processes (title_id, priority, created) "
+            + "SELECT t.id, i.priority, i.created FROM processes_import i JOIN titles t ON t.task = i.task ORDER BY i.line";
+
+    private static final String COPY_OUT = "COPY (SELECT p.pid, t.task, CASE p.priority "
+            + Arrays.stream(PriorityType.values())
+                    .map(priority -> String.format("WHEN %d THEN '%s'", priority.ordinal(), priority.name()))
+                    .collect(Collectors.joining(" "))
+            + " END AS priority, p.created FROM processes p JOIN titles t ON t.id = p.title_id ORDER BY p.pid) "
+            + "TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    /**
+     * The number of characters sent to the server at once
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CopyBulkTransfer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long importProcesses(InputStream csv) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(CREATE_STAGING);
+            }
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_IN);
+            try {
+                ProcessCsv reader = new ProcessCsv(csv);
+                StringBuilder chunk = new StringBuilder(CHUNK_SIZE + 1024);
+                long rows = 0;
+                ProcessCsv.Row row;
+                while ((row = reader.next()) != null) {
+                    ProcessCsv.appendCopyRow(chunk, row);
+                    rows++;
+                    if (chunk.length() >= CHUNK_SIZE) write(copyIn, chunk);
+                }
+                write(copyIn, chunk);
+                copyIn.endCopy();
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(INSERT_TITLES);
+                    statement.executeUpdate(INSERT_PROCESSES);
+                }
+                return rows;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                if (copyIn.isActive()) copyIn.cancelCopy();
+            }
+        });
+    }
+
+    @Override
+    public void exportProcesses(OutputStream csv) {
+        jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyOut(COPY_OUT, csv);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void write(CopyIn copyIn, StringBuilder chunk) throws SQLException {
+        if (chunk.length() == 0) return;
+        byte[] bytes = chunk.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        chunk.setLength(0);
+    }
+
+}
@@ -0,0 +1,178 @@
+package com.intuit.task.manager.transfer;
+
+import com.intuit.task.manager.dto.PriorityType;
+import com.intuit.task.manager.exceptions.InvalidImportFileException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * The CSV reader and writer of processes (RFC 4180: comma-separated, fields with commas, quotes
+ * or line breaks are quoted).
+ *
+ * The reader locates the columns by the header, so the columns may go in any order and unknown ones
+ * are skipped. The records are read one by one from the stream.
+ */
+final class ProcessCsv {
+
+    static final String HEADER = "pid,task,priority,created";
+
+    private final Reader reader;
+    private final int taskColumn;
+    private final int priorityColumn;
+    private final int createdColumn;
+    private long record = 1;
+
+    /**
+     * Instantiates a new reader and parses the header
+     *
+     * @throws InvalidImportFileException if the header doesn't contain the task and priority columns
+     * @param csv is the content of the file in UTF-8
+     */
+    ProcessCsv(InputStream csv) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        List<String> header = readRecord();
+        if (header == null) throw new InvalidImportFileException("The import file is empty");
+        List<String> columns = header.stream().map(column -> column.trim().toLowerCase(Locale.ROOT)).toList();
+        this.taskColumn = columns.indexOf("task");
+        this.priorityColumn = columns.indexOf("priority");
+        this.createdColumn = columns.indexOf("created");
+        if (taskColumn < 0 || priorityColumn < 0) {
+            throw new InvalidImportFileException("The header of the import file must contain the task and priority columns");
+        }
+    }
+
+    /**
+     * Reads the next row
+     *
+     * @throws InvalidImportFileException if the row can't be parsed
+     * @return the row or null at the end of the file
+     */
+    Row next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readRecord();
+            if (fields == null) return null;
+            record++;
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        String task = field(fields, taskColumn);
+        if (task.isEmpty()) throw invalid("the task is empty");
+        PriorityType priority;
+        try {
+            priority = PriorityType.valueOf(field(fields, priorityColumn).trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw invalid("the priority is not supported");
+        }
+        String created = createdColumn < 0 ? "" : field(fields, createdColumn).trim();
+        try {
+            // PostgreSQL separates the date and the time with a space
+            return new Row(task, priority.ordinal(),
+                    created.isEmpty() ? LocalDateTime.now() : LocalDateTime.parse(created.replace(' ', 'T')));
+        } catch (DateTimeParseException e) {
+            throw invalid("the creation time is not an ISO date-time");
+        }
+    }
+
+    /**
+     * Appends a row in the column order of the COPY command (task, priority ordinal, created)
+     *
+     * @param csv is the buffer
+     * @param row is the imported row
+     */
+    static void appendCopyRow(StringBuilder csv, Row row) {
+        appendField(csv, row.task());
+        csv.append(',').append(row.priority()).append(',').append(row.created()).append('\n');
+    }
+
+    /**
+     * Appends a row in the column order of the export file (pid, task, priority, created)
+     *
+     * @param csv is the buffer
+     * @param pid is the process ID
+     * @param row is the exported row
+     */
+    static void appendExportRow(StringBuilder csv, long pid, Row row) {
+        csv.append(pid).append(',');
+        appendField(csv, row.task());
+        csv.append(',').append(PriorityType.values()[row.priority()].name())
+                .append(',').append(row.created()).append('\n');
+    }
+
+    private static void appendField(StringBuilder csv, String value) {
+        boolean quoted = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quoted) {
+            csv.append(value);
+            return;
+        }
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') csv.append('"');
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+
+    private String field(List<String> fields, int column) {
+        if (column >= fields.size()) throw invalid("the number of columns doesn't match the header");
+        return fields.get(column);
+    }
+
+    private InvalidImportFileException invalid(String reason) {
+        return new InvalidImportFileException(String.format("Record %d of the import file is invalid: %s", record, reason));
+    }
+
+    /**
+     * Reads the fields of one record
+     *
+     * @return the fields or null at the end of the file
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) throw invalid("a quoted field isn't closed");
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    /**
+     * A row of the file
+     *
+     * @param task is the process title
+     * @param priority is the ordinal of the PriorityType
+     * @param created is the creation time
+     */
+    record Row(String task, int priority, LocalDateTime created) {
+    }
+
+}
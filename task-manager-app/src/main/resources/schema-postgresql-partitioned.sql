@@ -0,0 +1,27 @@
+CREATE TABLE IF NOT EXISTS titles (
+    id serial PRIMARY KEY,
+    task varchar(255) NOT NULL UNIQUE
+);
+CREATE SEQUENCE IF NOT EXISTS processes_pid_seq;
+CREATE TABLE IF NOT EXISTS processes (
+    pid bigint NOT NULL DEFAULT nextval('processes_pid_seq'),
+    priority integer NOT NULL,
+    created timestamp NOT NULL,
+    title_id integer NOT NULL REFERENCES titles (id),
+    lease_id varchar(255),
+    lease_expires timestamp,
+    PRIMARY KEY (pid, priority, created)
+) PARTITION BY LIST (priority);
+ALTER SEQUENCE processes_pid_seq OWNED BY processes.pid;
+CREATE TABLE IF NOT EXISTS processes_p0 PARTITION OF processes FOR VALUES IN (0) PARTITION BY RANGE (created);
+CREATE TABLE IF NOT EXISTS processes_p1 PARTITION OF processes FOR VALUES IN (1) PARTITION BY RANGE (created);
+CREATE TABLE IF NOT EXISTS processes_p2 PARTITION OF processes FOR VALUES IN (2) PARTITION BY RANGE (created);
+CREATE TABLE IF NOT EXISTS processes_p0_default PARTITION OF processes_p0 DEFAULT;
+CREATE TABLE IF NOT EXISTS processes_p1_default PARTITION OF processes_p1 DEFAULT;
+CREATE TABLE IF NOT EXISTS processes_p2_default PARTITION OF processes_p2 DEFAULT;
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id varchar(255) PRIMARY KEY,
+    fingerprint varchar(255),
+    response text,
+    created timestamp
+);
@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS titles_task_trgm_idx ON titles USING gin (lower(task) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS processes_title_idx ON processes (title_id);
+CREATE INDEX IF NOT EXISTS processes_claim_idx ON processes (priority DESC, created);
+CREATE INDEX IF NOT EXISTS processes_lease_idx ON processes (lease_id);
+CREATE INDEX IF NOT EXISTS processes_created_idx ON processes (created, pid);
@@ -0,0 +1,844 @@
+package com.intuit.task.manager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.intuit.task.manager.config.WireFormatConfiguration;
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.entities.Process;
+import com.intuit.task.manager.exceptions.*;
+import com.intuit.task.manager.repo.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import com.intuit.task.manager.service.*;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.*;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.*;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import javax.sql.DataSource;
+import java.io.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class TaskManagerApplicationTest {
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    /*
+     * The maximum number of SQL statements of the TaskService operations, counted on the DataSource
+     * so the JdbcTemplate statements (import, export) are included.
+     * An extra round trip (e.g. a query per ID) fails the build.
+     */
+    private static final long ADD_BUDGET = 2;                   // count + insert
+    private static final long ADD_WITH_EVICTION_BUDGET = 4;     // count + select the victim + insert + delete
+    private static final long REJECT_BUDGET = 0;                // rejected by the occupancy counters
+    private static final long GET_BUDGET = 1;
+    private static final long LIST_BUDGET = 1;
+    private static final long KILL_BUDGET = 2;                  // select by IDs + delete by IDs
+    private static final long KILL_BY_PRIORITY_BUDGET = 3;      // select IDs + KILL_BUDGET
+    private static final long KILL_ALL_BUDGET = 2;              // select all + delete all
+    private static final long RANGE_BUDGET = 1;
+    private static final long KILL_OLDER_THAN_BUDGET = 2;       // select the range + delete the locked IDs
+    private static final long SEARCH_BUDGET = 1;                // select the page by IDs
+    private static final long CHANGE_CAPACITY_BUDGET = 0;       // the eviction runs in the background
+    private static final long CLAIM_BUDGET = 2;                 // select and lock the free processes + lease them
+    private static final long EXTEND_LEASE_BUDGET = 2;          // update the lease + select its processes
+    private static final long ACK_BUDGET = 2;                   // select the lease + delete the acknowledged
+    private static final long IMPORT_BUDGET = 6;                // max pid + insert batch + count + max pid + 2 pages
+    private static final long EXPORT_BUDGET = 1;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TaskService service;
+    @Autowired
+    private ProcessRepository repository;
+    @Autowired
+    private List<ProcessChangeListener> listeners;
+    @Autowired
+    private ProcessStatistics statistics;
+    @Autowired
+    private TitleDictionary titles;
+
+    @Test
+    @Order(1)
+    @DisplayName("Adding a new task (Naive method)")
+    void addNewNaiveTask() throws Exception {
+        List<CreateRequestData> list = IntStream.of(1, 2, 3, 4)
+                .mapToObj(id -> new CreateRequestData("Task " + id, "NAIVE", "HIGH"))
+                .toList();
+
+        // The first three additions should pass without errors
+        for (int i = 0; i < 3; i++) {
+            CreateRequestData requestData = list.get(i);
+            postAction("/tasks", requestData)
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.pid").isNumber())
+                    .andExpect(jsonPath("$.task").value(requestData.getTask()));
+        }
+
+        // The following addition should cause an error of exceeding the capacity
+        postAction("/tasks", list.get(3)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("Adding a new task (FIFO method)")
+    void addNewFifoTask() throws Exception {
+
+        // The addition with the FIFO method should pass without errors
+        CreateRequestData requestData = new CreateRequestData("FIFO Task", "FIFO", "LOW");
+        postAction("/tasks", requestData)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pid").isNumber())
+                .andExpect(jsonPath("$.task").value(requestData.getTask()));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("Adding a new task (Priority method)")
+    void addNewPriorityTask() throws Exception {
+
+        // The first addition of a priority task should pass without errors
+        CreateRequestData requestData = new CreateRequestData("Priority Task", "PRIORITY", "MEDIUM");
+        postAction("/tasks", requestData)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.pid").isNumber())
+                .andExpect(jsonPath("$.task").value(requestData.getTask()));
+
+        // Another addition should return an error, because there are no more low priority tasks in the list
+        postAction("/tasks", requestData).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("Getting one task")
+    void getOneTask() throws Exception {
+        ProcessResponseData testingCase = listOfAllTasks().get(0);
+
+        mockMvc.perform(get("/tasks/" + testingCase.getPid()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pid").value(testingCase.getPid()))
+                .andExpect(jsonPath("$.task").value(testingCase.getTask()));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("Sorting by date (default)")
+    void sortByDate() throws Exception {
+        String responseJSONByDefault = getAction("/tasks/");
+        String responseJSONByDate = getAction("/tasks/sortedBy/date");
+
+        // The creation date of each object must be less than that of the next
+        ProcessResponseData[] tasks = mapJsonToObjects(responseJSONByDate);
+        assertThat(tasks[0].getCreated()).isBefore(tasks[1].getCreated());
+        assertThat(tasks[1].getCreated()).isBefore(tasks[2].getCreated());
+
+        // The default query should return the same result as by date
+        assertThat(responseJSONByDefault).isEqualTo(responseJSONByDate);
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Sorting by ID")
+    void sortByPid() throws Exception {
+        String responseJSON = getAction("/tasks/sortedBy/id");
+
+        // The ID of each object must be less than that of the next
+        ProcessResponseData[] tasks = mapJsonToObjects(responseJSON);
+        assertThat(tasks[0].getCreated()).isBefore(tasks[1].getCreated());
+        assertThat(tasks[1].getCreated()).isBefore(tasks[2].getCreated());
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("Deleting all the task")
+    void removeAll() throws Exception {
+        String responseJSON = deleteAction("/tasks/remove/all");
+        ProcessResponseData[] tasks = objectMapper.readValue(responseJSON, ProcessResponseData[].class);
+
+        // Three objects should be deleted, the database should be empty
+        assertThat(tasks.length).isEqualTo(3);
+        assertThat(listOfAllTasks()).isEmpty();
+    }
+
+    @Test
+    @Order(8)
+    @DisplayName("Sorting by priority")
+    void sortByPriority() throws Exception {
+        service.addProcess("HIGH", CreatingType.NAIVE, PriorityType.HIGH);
+        service.addProcess("LOW", CreatingType.NAIVE, PriorityType.LOW);
+        service.addProcess("MEDIUM", CreatingType.NAIVE, PriorityType.MEDIUM);
+
+        String responseJSON = getAction("/tasks/sortedBy/priority");
+
+        // Tasks should be placed from the lowest priority to the highest
+        ProcessResponseData[] tasks = mapJsonToObjects(responseJSON);
+        assertThat(tasks[0].getPriority()).isEqualTo(PriorityType.LOW);
+        assertThat(tasks[1].getPriority()).isEqualTo(PriorityType.MEDIUM);
+        assertThat(tasks[2].getPriority()).isEqualTo(PriorityType.HIGH);
+    }
+
+    @Test
+    @Order(9)
+    @DisplayName("Deleting one task")
+    void removeOneTask() throws Exception {
+        ProcessResponseData testingCase = listOfAllTasks().get(0);
+
+        String responseJSON = deleteAction("/tasks/remove/" + testingCase.getPid());
+        ProcessResponseData[] tasks = mapJsonToObjects(responseJSON);
+
+        // The request should return the deleted object, two records should remain in the database
+        assertThat(tasks[0].getPid()).isEqualTo(testingCase.getPid());
+        assertThat(listOfAllTasks().size()).isEqualTo(2);
+    }
+
+    @Test
+    @Order(10)
+    @DisplayName("Deleting list of tasks")
+    void removeListOfTasks() throws Exception {
+        long[] ids = listOfAllTasks().stream().mapToLong(ProcessResponseData::getPid).toArray();
+        RemoveRequestData requestData = new RemoveRequestData(ids);
+
+        String responseJSON = mockMvc.perform(delete("/tasks/remove/")
+                    .content(objectMapper.writeValueAsString(requestData))
+                    .contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        ProcessResponseData[] removedTasks = mapJsonToObjects(responseJSON);
+
+        // The numbers of deleted tasks must match the parameters, the database must be empty
+        assertThat(removedTasks[0].getPid()).isEqualTo(ids[0]);
+        assertThat(removedTasks[1].getPid()).isEqualTo(ids[1]);
+        assertThat(listOfAllTasks().size()).isEqualTo(0);
+    }
+
+    @Test
+    @Order(11)
+    @DisplayName("Deleting list of process by Priority")
+    void deleteByPriority() throws Exception {
+        service.addProcess("HIGH", CreatingType.NAIVE, PriorityType.HIGH);
+        service.addProcess("HIGH", CreatingType.NAIVE, PriorityType.HIGH);
+        service.addProcess("MEDIUM", CreatingType.NAIVE, PriorityType.MEDIUM);
+
+        String responseJSON = deleteAction("/tasks/remove/all/high");
+        ProcessResponseData[] tasks = mapJsonToObjects(responseJSON);
+
+        // The request should return the deleted object, one record should remain in the database
+        assertThat(tasks[0].getPriority()).isEqualTo(PriorityType.HIGH);
+        assertThat(tasks[1].getPriority()).isEqualTo(PriorityType.HIGH);
+        assertThat(listOfAllTasks().size()).isEqualTo(1);
+        assertThat(listOfAllTasks().get(0).getPriority()).isEqualTo(PriorityType.MEDIUM);
+    }
+
+    @Test
+    @Order(12)
+    @DisplayName("Changing the capacity")
+    void changeCapacity() {
+        try {
+            // Getting access to a private method
+            Method changeMethod = TaskServiceImpl.class.getDeclaredMethod("setMaxCapacity", int.class);
+            changeMethod.setAccessible(true);
+
+            // The increase in the maximum capacity should pass without error
+            changeMethod.invoke(service, 5);
+
+            // Should return an error when trying to enter a value that isn't greater than zero
+            assertThatThrownBy(() -> changeMethod.invoke(service, 0))
+                    .isInstanceOf(InvocationTargetException.class);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("Decreasing the capacity")
+    void shrinkCapacity() throws Exception {
+        for (int i = 0; i < 4; i++) service.addProcess("LOW", CreatingType.NAIVE, PriorityType.LOW);
+
+        mockMvc.perform(put("/tasks/capacity")
+                    .content(objectMapper.writeValueAsString(new CapacityRequestData(3, "priority")))
+                    .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.capacity").value(3));
+
+        // The excess is evicted in the background
+        for (int i = 0; i < 100 && service.getStatistics().getTotal() > 3; i++) Thread.sleep(50);
+
+        // The oldest low priority tasks should be evicted first, the medium one should remain
+        List<ProcessResponseData> tasks = listOfAllTasks();
+        assertThat(tasks.size()).isEqualTo(3);
+        assertThat(tasks).extracting(ProcessResponseData::getPriority).contains(PriorityType.MEDIUM);
+
+        // The capacity should be greater than zero
+        mockMvc.perform(put("/tasks/capacity")
+                    .content(objectMapper.writeValueAsString(new CapacityRequestData(0, "fifo")))
+                    .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        service.changeCapacity(5, EvictionType.FIFO);
+    }
+
+    @Test
+    @DisplayName("Getting tasks in a binary format")
+    void getTasksInBinaryFormat() throws Exception {
+        ObjectMapper smileMapper = WireFormatConfiguration.compactMapper(new SmileFactory());
+
+        byte[] response = mockMvc.perform(get("/tasks").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        // The binary response must contain the same tasks as the JSON one
+        ProcessResponseData[] tasks = smileMapper.readValue(response, ProcessResponseData[].class);
+        assertThat(Arrays.stream(tasks).map(ProcessResponseData::getPid).toList())
+                .isEqualTo(listOfAllTasks().stream().map(ProcessResponseData::getPid).toList());
+
+        // The timestamps keep their nanoseconds and don't depend on the time zone
+        assertThat(Arrays.stream(tasks).map(ProcessResponseData::getCreated).toList())
+                .isEqualTo(listOfAllTasks().stream().map(ProcessResponseData::getCreated).toList());
+        LocalDateTime created = LocalDateTime.of(2024, 3, 31, 2, 30, 0, 123_456_789);
+        assertThat(smileMapper.readValue(smileMapper.writeValueAsBytes(created), LocalDateTime.class)).isEqualTo(created);
+
+        // An unknown priority is a format error, not an internal one
+        assertThatThrownBy(() -> smileMapper.readValue(smileMapper.writeValueAsBytes(7), PriorityType.class))
+                .isInstanceOf(InvalidFormatException.class);
+
+        // JSON stays the default format
+        mockMvc.perform(get("/tasks")).andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Conditional GET of the list of tasks")
+    void conditionalGet() throws Exception {
+        String etag = mockMvc.perform(get("/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        // The unchanged list should not be returned again
+        mockMvc.perform(get("/tasks").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        // Every format has its own ETag
+        mockMvc.perform(get("/tasks").accept(SMILE).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andExpect(header().string("ETag", not(etag)));
+
+        // Any modification changes the version
+        ProcessResponseData added = service.addProcess("Conditional GET", CreatingType.FIFO, PriorityType.LOW);
+        mockMvc.perform(get("/tasks").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+
+        // An unchanged task gets 304 from the counters, without reading the repository
+        String taskEtag = mockMvc.perform(get("/tasks/" + added.getPid()))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        QueryCountHolder.clear();
+        mockMvc.perform(get("/tasks/" + added.getPid()).header("If-None-Match", taskEtag))
+                .andExpect(status().isNotModified());
+        assertThat(QueryCountHolder.getGrandTotal().getTotal()).isZero();
+
+        // A task removed behind the back of this instance gets 404 without an ETag once the counters are resynchronized
+        List<Process> removed = List.of(repository.getByPid(added.getPid()));
+        repository.deleteAllInBatch(removed);
+        try {
+            statistics.resync();
+            mockMvc.perform(get("/tasks/" + added.getPid()).header("If-None-Match", taskEtag))
+                    .andExpect(status().isNotFound())
+                    .andExpect(header().doesNotExist("ETag"));
+        } finally {
+            listeners.forEach(listener -> listener.onRemoved(removed));
+        }
+    }
+
+    @Test
+    @DisplayName("Searching tasks by title")
+    void searchTasks() throws Exception {
+        ProcessResponseData nightly = service.addProcess("Nightly-Sync", CreatingType.FIFO, PriorityType.LOW);
+
+        // Substring search is the default and ignores the case
+        ProcessResponseData[] tasks = mapJsonToObjects(getAction("/tasks/search?q=ly-sy"));
+        assertThat(tasks).extracting(ProcessResponseData::getPid).contains(nightly.getPid());
+
+        // The title doesn't start with the query
+        tasks = mapJsonToObjects(getAction("/tasks/search?q=sync&type=prefix"));
+        assertThat(tasks).extracting(ProcessResponseData::getPid).doesNotContain(nightly.getPid());
+
+        // Short queries are supported as well
+        tasks = mapJsonToObjects(getAction("/tasks/search?q=ni&type=prefix"));
+        assertThat(tasks).extracting(ProcessResponseData::getPid).contains(nightly.getPid());
+
+        // The removed task can't be found anymore
+        service.killProcess(nightly.getPid());
+        assertThat(mapJsonToObjects(getAction("/tasks/search?q=nightly-sync"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Getting the statistics")
+    void getStatistics() throws Exception {
+        List<ProcessResponseData> tasks = listOfAllTasks();
+        long lowCount = tasks.stream().filter(task -> task.getPriority() == PriorityType.LOW).count();
+
+        // The counters must match the stored tasks
+        mockMvc.perform(get("/tasks/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(tasks.size()))
+                .andExpect(jsonPath("$.remaining").value(Math.max(0, service.getStatistics().getCapacity() - tasks.size())))
+                .andExpect(jsonPath("$.priorities.LOW.count").value(lowCount));
+    }
+
+    @Test
+    @DisplayName("Adding a task asynchronously")
+    void addTaskAsync() throws Exception {
+        CreateRequestData requestData = new CreateRequestData("Async Task", "FIFO", "HIGH");
+        String ticketJSON = postAction("/tasks/async", requestData)
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").isString())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String ticketId = objectMapper.readTree(ticketJSON).get("id").asText();
+
+        // The ticket is completed by the writer thread
+        String status = "PENDING";
+        for (int i = 0; i < 100 && status.equals("PENDING"); i++) {
+            Thread.sleep(50);
+            status = objectMapper.readTree(getAction("/tasks/tickets/" + ticketId)).get("status").asText();
+        }
+        assertThat(status).isEqualTo("DONE");
+
+        mockMvc.perform(get("/tasks/tickets/" + ticketId))
+                .andExpect(jsonPath("$.process.task").value(requestData.getTask()));
+        mockMvc.perform(get("/tasks/tickets/unknown")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Importing and exporting tasks")
+    void importAndExportTasks() throws Exception {
+        service.killAllProcesses();
+        String csv = "task,priority,created\n" +
+                "Imported,high,2022-05-03T05:33:23.185839\n" +
+                "\"Imported, \"\"quoted\"\"\",low,\n";
+
+        mockMvc.perform(post("/tasks/import").content(csv).contentType("text/csv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.total").value(2));
+        assertThat(service.getStatistics().getPriorities().get(PriorityType.HIGH).getCount()).isEqualTo(1);
+
+        // The export contains the imported tasks and can be imported back
+        String exported = mockMvc.perform(get("/tasks/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(exported).startsWith("pid,task,priority,created\n")
+                .contains(",Imported,HIGH,2022-05-03T05:33:23.185839")
+                .contains("\"Imported, \"\"quoted\"\"\",LOW,");
+
+        // The capacity is checked for the whole file, nothing is imported if it is exceeded
+        String tooMany = "task,priority\n" + "Overflow,medium\n".repeat(service.getStatistics().getCapacity());
+        mockMvc.perform(post("/tasks/import").content(tooMany).contentType("text/csv"))
+                .andExpect(status().isBadRequest());
+        assertThat(listOfAllTasks().size()).isEqualTo(2);
+
+        mockMvc.perform(post("/tasks/import").content("task,priority\nInvalid,urgent\n").contentType("text/csv"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Claiming and acknowledging tasks")
+    void claimTasks() throws Exception {
+        service.killAllProcesses();
+        service.addProcess("Claim LOW", CreatingType.NAIVE, PriorityType.LOW);
+        service.addProcess("Claim HIGH", CreatingType.NAIVE, PriorityType.HIGH);
+        service.addProcess("Claim MEDIUM", CreatingType.NAIVE, PriorityType.MEDIUM);
+
+        // The tasks are leased from the highest priority
+        String leaseJSON = mockMvc.perform(post("/tasks/claim?max=2&lease=30s"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processes.length()").value(2))
+                .andExpect(jsonPath("$.processes[0].priority").value("HIGH"))
+                .andExpect(jsonPath("$.processes[1].priority").value("MEDIUM"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String leaseId = objectMapper.readTree(leaseJSON).get("id").asText();
+
+        // A leased task can't be claimed by another worker until the lease expires
+        String shortLeaseJSON = mockMvc.perform(post("/tasks/claim?max=5&lease=50ms"))
+                .andExpect(jsonPath("$.processes.length()").value(1))
+                .andExpect(jsonPath("$.processes[0].priority").value("LOW"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String shortLeaseId = objectMapper.readTree(shortLeaseJSON).get("id").asText();
+        Thread.sleep(100);
+        mockMvc.perform(post("/tasks/claim?max=5"))
+                .andExpect(jsonPath("$.processes.length()").value(1))
+                .andExpect(jsonPath("$.processes[0].task").value("Claim LOW"));
+        mockMvc.perform(put("/tasks/leases/" + shortLeaseId)).andExpect(status().isNotFound());
+
+        // An active lease can be extended and acknowledged once
+        mockMvc.perform(put("/tasks/leases/" + leaseId + "?lease=1m"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processes.length()").value(2));
+        mockMvc.perform(delete("/tasks/leases/" + leaseId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        mockMvc.perform(delete("/tasks/leases/" + leaseId)).andExpect(status().isNotFound());
+        assertThat(listOfAllTasks()).extracting(ProcessResponseData::getTask).containsExactly("Claim LOW");
+
+        mockMvc.perform(post("/tasks/claim?lease=forever")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Claiming more tasks than free and acknowledging a reclaimed lease")
+    void claimReclaimed() throws Exception {
+        service.killAllProcesses();
+        service.addProcess("Reclaim 1", CreatingType.NAIVE, PriorityType.LOW);
+        service.addProcess("Reclaim 2", CreatingType.NAIVE, PriorityType.LOW);
+
+        // The claim locks only the free tasks and returns fewer than requested
+        LeaseResponseData lease = service.claimProcesses(10, Duration.ofMillis(50));
+        assertThat(lease.getProcesses()).hasSize(2);
+        assertThat(service.claimProcesses(10, Duration.ofMinutes(1)).getProcesses()).isEmpty();
+
+        // Another worker claims the tasks after the lease has expired, the late acknowledgement deletes nothing
+        Thread.sleep(100);
+        LeaseResponseData reclaimed = service.claimProcesses(10, Duration.ofMinutes(1));
+        assertThat(reclaimed.getProcesses()).hasSize(2);
+        assertThatThrownBy(() -> service.ackProcesses(lease.getId())).isInstanceOf(LeaseNotFoundException.class);
+        long pid = lease.getProcesses().get(0).getPid();
+        assertThatThrownBy(() -> service.ackProcesses(lease.getId(), pid)).isInstanceOf(LeaseNotFoundException.class);
+        assertThat(listOfAllTasks()).hasSize(2);
+
+        assertThat(service.ackProcesses(reclaimed.getId(), pid)).hasSize(1);
+        assertThat(listOfAllTasks()).extracting(ProcessResponseData::getPid).doesNotContain(pid);
+    }
+
+    @Test
+    @DisplayName("Getting and removing tasks by creation time")
+    void createdRange() throws Exception {
+        service.killAllProcesses();
+        for (String task : List.of("Range 1", "Range 2", "Range 3")) {
+            service.addProcess(task, CreatingType.NAIVE, PriorityType.LOW);
+            Thread.sleep(5);
+        }
+        List<ProcessResponseData> tasks = listOfAllTasks();
+        LocalDateTime first = tasks.get(0).getCreated();
+        LocalDateTime second = tasks.get(1).getCreated();
+        LocalDateTime third = tasks.get(2).getCreated();
+
+        // The end of the range is exclusive
+        mockMvc.perform(get("/tasks?createdFrom=" + first + "&createdTo=" + third))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].task").value("Range 1"))
+                .andExpect(jsonPath("$[1].task").value("Range 2"));
+        mockMvc.perform(get("/tasks?createdFrom=" + second + "&size=1&page=1"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].task").value("Range 3"));
+        mockMvc.perform(get("/tasks?createdTo=" + first)).andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/tasks?createdFrom=" + third + "&createdTo=" + first)).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/tasks?createdFrom=yesterday")).andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/tasks/remove?olderThan=" + third))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+        assertThat(listOfAllTasks()).extracting(ProcessResponseData::getTask).containsExactly("Range 3");
+        assertThat(service.getStatistics().getTotal()).isEqualTo(1);
+        mockMvc.perform(delete("/tasks/remove?olderThan=" + first)).andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    @DisplayName("Repeating a request with the same Idempotency-Key")
+    void idempotentAdding() throws Exception {
+        service.killAllProcesses();
+        CreateRequestData requestData = new CreateRequestData("Idempotent Task", "FIFO", "LOW");
+        String first = postAction("/tasks", requestData, "key-1")
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String second = postAction("/tasks", requestData, "key-1")
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        assertThat(objectMapper.readTree(second)).isEqualTo(objectMapper.readTree(first));
+        assertThat(listOfAllTasks()).hasSize(1);
+
+        // The key can't be reused for another body
+        postAction("/tasks", new CreateRequestData("Another Task", "FIFO", "LOW"), "key-1")
+                .andExpect(status().isUnprocessableEntity());
+        postAction("/tasks", requestData, " ").andExpect(status().isBadRequest());
+
+        String tickets = mockMvc.perform(post("/tasks/async/batch")
+                        .header("Idempotency-Key", "key-2")
+                        .content(objectMapper.writeValueAsString(List.of(requestData, requestData)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String firstTicket = objectMapper.readTree(tickets).get(0).get("id").asText();
+        String secondTicket = objectMapper.readTree(tickets).get(1).get("id").asText();
+        mockMvc.perform(post("/tasks/async/batch")
+                        .header("Idempotency-Key", "key-2")
+                        .content(objectMapper.writeValueAsString(List.of(requestData, requestData)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(firstTicket))
+                .andExpect(jsonPath("$[1].id").value(secondTicket));
+
+        // The asynchronous tasks are added once by the writer thread
+        for (int i = 0; i < 100 && listOfAllTasks().size() < 3; i++) Thread.sleep(50);
+        assertThat(listOfAllTasks()).hasSize(3);
+
+        // After the writer has stored the batch, a retry gets its results
+        for (int i = 0; i < 100 && !mockMvc.perform(get("/tasks/tickets/" + secondTicket)).andReturn()
+                .getResponse().getContentAsString().contains("DONE"); i++) Thread.sleep(50);
+        mockMvc.perform(post("/tasks/async/batch")
+                        .header("Idempotency-Key", "key-2")
+                        .content(objectMapper.writeValueAsString(List.of(requestData, requestData)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(firstTicket))
+                .andExpect(jsonPath("$[1].status").value("DONE"))
+                .andExpect(jsonPath("$[1].process.task").value("Idempotent Task"));
+        mockMvc.perform(post("/tasks/async/batch")
+                        .header("Idempotency-Key", "key-2")
+                        .content(objectMapper.writeValueAsString(List.of(requestData)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+        assertThat(listOfAllTasks()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("SQL statement budgets of the operations")
+    void statementBudgets() {
+        service.killAllProcesses();
+        int capacity = service.getStatistics().getCapacity();
+        // The budgets are for a known title, a new one costs a lookup and its own transaction with two statements
+        titles.resolve("Budget");
+
+        List<ProcessResponseData> added = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            assertStatements(ADD_BUDGET, () -> added.add(service.addProcess("Budget", CreatingType.NAIVE, PriorityType.LOW)));
+        }
+        assertStatements(ADD_WITH_EVICTION_BUDGET, () -> service.addProcess("Budget", CreatingType.FIFO, PriorityType.HIGH));
+        assertStatements(ADD_WITH_EVICTION_BUDGET, () -> service.addProcess("Budget", CreatingType.PRIORITY, PriorityType.HIGH));
+        assertStatements(REJECT_BUDGET, () -> assertThatThrownBy(() -> service.addProcess("Budget", CreatingType.NAIVE, PriorityType.LOW))
+                .isInstanceOf(MaximumCapacityExceededException.class));
+
+        assertStatements(GET_BUDGET, () -> service.getProcess(added.get(capacity - 1).getPid()));
+        for (SortingType sort : SortingType.values()) assertStatements(LIST_BUDGET, () -> service.getAllProcesses(sort));
+        assertStatements(0, service::getStatistics);
+
+        // The budget of a kill doesn't depend on the number of IDs
+        long[] ids = listOfAllTasks().stream()
+                .filter(task -> task.getPriority() == PriorityType.HIGH)
+                .mapToLong(ProcessResponseData::getPid)
+                .toArray();
+        assertStatements(KILL_BUDGET, () -> service.killProcess(ids));
+        assertStatements(KILL_BY_PRIORITY_BUDGET, () -> service.killProcessByPriority(PriorityType.LOW));
+        service.addProcess("Budget", CreatingType.NAIVE, PriorityType.MEDIUM);
+        assertStatements(RANGE_BUDGET, () -> service.getProcessesCreatedBetween(null, LocalDateTime.now(), 0, 20));
+        assertStatements(KILL_OLDER_THAN_BUDGET, () -> service.killProcessesOlderThan(LocalDateTime.now()));
+        service.addProcess("Budget", CreatingType.NAIVE, PriorityType.MEDIUM);
+        assertStatements(KILL_ALL_BUDGET, service::killAllProcesses);
+
+        // A batch costs the same per process as single additions
+        List<AdmissionRequest> batch = List.of(
+                new AdmissionRequest("Budget", CreatingType.NAIVE, PriorityType.LOW),
+                new AdmissionRequest("Budget", CreatingType.NAIVE, PriorityType.HIGH));
+        assertStatements(batch.size() * ADD_BUDGET, () -> service.addProcesses(batch));
+        assertStatements(SEARCH_BUDGET, () -> service.searchProcesses("bud", SearchType.PREFIX, 0, 20));
+        assertStatements(CHANGE_CAPACITY_BUDGET, () -> service.changeCapacity(capacity, EvictionType.FIFO));
+
+        LeaseResponseData[] lease = new LeaseResponseData[1];
+        assertStatements(CLAIM_BUDGET, () -> lease[0] = service.claimProcesses(capacity, Duration.ofMinutes(1)));
+        assertThat(lease[0].getProcesses()).hasSize(batch.size());
+        assertStatements(EXTEND_LEASE_BUDGET, () -> service.extendLease(lease[0].getId(), Duration.ofMinutes(1)));
+        assertStatements(ACK_BUDGET, () -> service.ackProcesses(lease[0].getId()));
+
+        String csv = "task,priority,created\nBudget,low,\nBudget,high,\n";
+        assertStatements(IMPORT_BUDGET, () -> service.importProcesses(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))));
+        assertStatements(EXPORT_BUDGET, () -> service.exportProcesses(OutputStream.nullOutputStream()));
+        service.killAllProcesses();
+    }
+
+    @Test
+    @DisplayName("Admitting a task after an external removal once the counters are resynchronized")
+    void externalRemoval() {
+        service.killAllProcesses();
+        for (int i = 0; i < service.getStatistics().getCapacity(); i++) {
+            service.addProcess("External", CreatingType.NAIVE, PriorityType.LOW);
+        }
+        assertThatThrownBy(() -> service.addProcess("External", CreatingType.NAIVE, PriorityType.LOW))
+                .isInstanceOf(MaximumCapacityExceededException.class);
+        assertThatThrownBy(() -> service.addProcess("External", CreatingType.PRIORITY, PriorityType.LOW))
+                .isInstanceOf(UnableToApplyPriorityOrderException.class);
+
+        // Another instance removes the tasks, the counters of this one see a full task manager until the resync
+        List<Process> removed = repository.findAll();
+        repository.deleteAllInBatch();
+        try {
+            assertThatThrownBy(() -> service.addProcess("External", CreatingType.NAIVE, PriorityType.LOW))
+                    .isInstanceOf(MaximumCapacityExceededException.class);
+            statistics.resync();
+            assertThat(statistics.getTotal()).isZero();
+            assertThat(service.addProcess("External", CreatingType.NAIVE, PriorityType.LOW).getTask()).isEqualTo("External");
+        } finally {
+            listeners.forEach(listener -> listener.onRemoved(removed));
+        }
+        assertThat(listOfAllTasks()).hasSize(1);
+    }
+
+    /* HANDLING EXCEPTIONAL SITUATIONS */
+
+    @Test
+    @DisplayName("Adding invalid task")
+    void addingInvalidTask() throws Exception {
+        CreateRequestData requestData = new CreateRequestData("", "WRONG_TYPE", "WRONG_TYPE");
+        postAction("/tasks", requestData).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Getting a non-existent task")
+    void getNonExistentTask() throws Exception {
+        mockMvc.perform(get("/tasks/99999")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/tasks/qwerty")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Sorting by non-existent parameter")
+    void sortByNonExistentParameter() throws Exception {
+        mockMvc.perform(get("/tasks/sortedBy/something")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Deleting a non-existent task")
+    void removeNonExistentTask() throws Exception {
+
+        // All requests should return errors
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/tasks/remove/99999"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/tasks/remove/qwerty"))
+                .andExpect(status().isBadRequest());
+
+        long[] list = {99999, 99998};
+        RemoveRequestData requestData = new RemoveRequestData(list);
+        mockMvc.perform(delete("/tasks/remove/")
+                        .content(objectMapper.writeValueAsString(requestData))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    /* HELPER METHODS */
+
+    private ResultActions postAction(String URL, CreateRequestData requestData) throws Exception {
+         return mockMvc.perform(post(URL)
+                        .content(objectMapper.writeValueAsString(requestData))
+                        .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private ResultActions postAction(String URL, CreateRequestData requestData, String idempotencyKey) throws Exception {
+        return mockMvc.perform(post(URL)
+                .header("Idempotency-Key", idempotencyKey)
+                .content(objectMapper.writeValueAsString(requestData))
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+
+    private String getAction(String URL) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get(URL))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private String deleteAction(String URL) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.delete(URL))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+
+    private ProcessResponseData[] mapJsonToObjects(String JSON) throws JsonProcessingException {
+        return objectMapper.readValue(JSON, ProcessResponseData[].class);
+    }
+
+    /**
+     * Runs an operation and checks the number of SQL statements the current thread has executed meanwhile
+     * A JDBC batch counts as one statement.
+     *
+     * @param budget is the maximum number of statements
+     * @param operation is a call of the TaskService
+     */
+    private void assertStatements(long budget, Runnable operation) {
+        QueryCountHolder.clear();
+        operation.run();
+        assertThat(QueryCountHolder.getGrandTotal().getTotal())
+                .as("The number of SQL statements")
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private List<ProcessResponseData> listOfAllTasks() {
+        return service.getAllProcesses(SortingType.DATE);
+    }
+
+    /**
+     * Counts the statements of every DataSource, both from Hibernate and from JdbcTemplate
+     */
+    @TestConfiguration
+    static class StatementCountingConfiguration {
+
+        @Bean
+        static BeanPostProcessor statementCountingPostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) return bean;
+                    return ProxyDataSourceBuilder.create(dataSource).name(beanName).countQuery().build();
+                }
+            };
+        }
+
+    }
+
+}
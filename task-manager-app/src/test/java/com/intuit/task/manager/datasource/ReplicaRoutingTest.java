@@ -0,0 +1,112 @@
+package com.intuit.task.manager.datasource;
+
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.exceptions.ProcessNotFoundException;
+import com.intuit.task.manager.service.TaskService;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The routing between two H2 databases: the replica has a task the primary doesn't have,
+ * so the result of a read shows which database has served it.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;"
+                + "INIT=RUNSCRIPT FROM 'classpath:schema-replica.sql'",
+        "app.datasource.replica.max-staleness=300ms"
+})
+public class ReplicaRoutingTest {
+
+    private static final Duration MAX_STALENESS = Duration.ofMillis(300);
+    private static final long REPLICA_PID = 1000;
+    private static final int REPLICA_TITLE_ID = 1000;
+
+    @Autowired
+    private TaskService service;
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primary;
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replica;
+
+    @BeforeEach
+    void replicate() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica);
+        jdbcTemplate.update("MERGE INTO titles (id, task) KEY (id) VALUES (?, 'Replica only')", REPLICA_TITLE_ID);
+        jdbcTemplate.update("MERGE INTO processes (pid, priority, created, title_id) KEY (pid) " +
+                "VALUES (?, 0, CURRENT_TIMESTAMP, ?)", REPLICA_PID, REPLICA_TITLE_ID);
+        routingDataSource.updateReplicaLag(0);
+    }
+
+    @Test
+    @DisplayName("Reading from the replica")
+    void reads() throws InterruptedException {
+        Thread.sleep(MAX_STALENESS.toMillis() + 100);
+        assertThat(service.getAllProcesses(SortingType.ID)).extracting(ProcessResponseData::getTask).containsExactly("Replica only");
+        assertThat(service.getProcess(REPLICA_PID).getTask()).isEqualTo("Replica only");
+    }
+
+    @Test
+    @DisplayName("Writing and killing on the primary, reading from the primary after a write")
+    void writes() {
+        ProcessResponseData added = service.addProcess("Primary", CreatingType.NAIVE, PriorityType.LOW);
+        assertThat(countOf(primary, "Primary")).isEqualTo(1);
+        assertThat(countOf(replica, "Primary")).isZero();
+
+        // The replica hasn't seen the write yet
+        assertThat(service.getProcess(added.getPid()).getTask()).isEqualTo("Primary");
+        assertThat(service.getAllProcesses(SortingType.ID)).extracting(ProcessResponseData::getTask).containsExactly("Primary");
+
+        assertThat(service.killProcess(added.getPid())).hasSize(1);
+        assertThat(countOf(primary, "Primary")).isZero();
+        assertThatThrownBy(() -> service.killProcess(REPLICA_PID)).isInstanceOf(ProcessNotFoundException.class);
+        assertThat(countOf(replica, "Replica only")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Returning to the replica after a write despite the reads in between")
+    void readsAfterWrite() throws InterruptedException {
+        ProcessResponseData added = service.addProcess("Primary", CreatingType.NAIVE, PriorityType.LOW);
+        long end = System.nanoTime() + MAX_STALENESS.toNanos() + TimeUnit.MILLISECONDS.toNanos(100);
+        while (System.nanoTime() < end) {
+            // The reads served by the primary don't extend the staleness window
+            service.getAllProcesses(SortingType.ID);
+            Thread.sleep(20);
+        }
+        assertThat(service.getProcess(REPLICA_PID).getTask()).isEqualTo("Replica only");
+        service.killProcess(added.getPid());
+    }
+
+    @Test
+    @DisplayName("Reading from the primary while the replica is lagging behind")
+    void lag() throws InterruptedException {
+        Thread.sleep(MAX_STALENESS.toMillis() + 100);
+        routingDataSource.updateReplicaLag(MAX_STALENESS.toNanos() + 1);
+        assertThatThrownBy(() -> service.getProcess(REPLICA_PID)).isInstanceOf(ProcessNotFoundException.class);
+
+        // A failed probe doesn't trust the replica either
+        routingDataSource.updateReplicaLag(-1);
+        assertThatThrownBy(() -> service.getProcess(REPLICA_PID)).isInstanceOf(ProcessNotFoundException.class);
+
+        routingDataSource.updateReplicaLag(MAX_STALENESS.toNanos());
+        assertThat(service.getProcess(REPLICA_PID).getTask()).isEqualTo("Replica only");
+    }
+
+    private long countOf(DataSource dataSource, String task) {
+        Long count = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM processes p " +
+                "JOIN titles t ON t.id = p.title_id WHERE t.task = ?", Long.class, task);
+        return count == null ? 0 : count;
+    }
+
+}
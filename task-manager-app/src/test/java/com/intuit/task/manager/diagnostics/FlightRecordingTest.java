@@ -0,0 +1,89 @@
+package com.intuit.task.manager.diagnostics;
+
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.exceptions.MaximumCapacityExceededException;
+import com.intuit.task.manager.service.TaskService;
+import jdk.jfr.Configuration;
+import jdk.jfr.consumer.*;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * The events of the task manager recorded with the settings of jfr/task-manager.jfc
+ */
+@SpringBootTest
+public class FlightRecordingTest {
+
+    private static final String ADMISSION = "com.intuit.task.manager.Admission";
+    private static final String KILL = "com.intuit.task.manager.Kill";
+    private static final String LIST = "com.intuit.task.manager.List";
+    private static final String REPOSITORY_CALL = "com.intuit.task.manager.RepositoryCall";
+
+    @Autowired
+    private TaskService service;
+
+    private final List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    @DisplayName("Recording the admission, kill, list and repository events")
+    void events() throws Exception {
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(new ClassPathResource("jfr/task-manager.jfc").getInputStream(), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        try (RecordingStream stream = new RecordingStream(configuration)) {
+            // H2 answers faster than the thresholds of the profile
+            stream.enable(LIST).withoutThreshold();
+            stream.enable(REPOSITORY_CALL).withoutThreshold();
+            stream.onEvent(ADMISSION, events::add);
+            stream.onEvent(KILL, events::add);
+            stream.onEvent(LIST, events::add);
+            stream.onEvent(REPOSITORY_CALL, events::add);
+            stream.startAsync();
+
+            service.killAllProcesses();
+            ProcessResponseData added = null;
+            for (int i = 0; i < service.getStatistics().getCapacity(); i++) {
+                added = service.addProcess("Recorded", CreatingType.NAIVE, PriorityType.LOW);
+            }
+            assertThatThrownBy(() -> service.addProcess("Recorded", CreatingType.NAIVE, PriorityType.LOW))
+                    .isInstanceOf(MaximumCapacityExceededException.class);
+            service.getAllProcesses(SortingType.ID);
+            service.killProcess(added.getPid());
+
+            long pid = added.getPid();
+            awaitEvent(event -> event.getEventType().getName().equals(ADMISSION)
+                    && event.getBoolean("accepted") && event.getLong("pid") == pid);
+            awaitEvent(event -> event.getEventType().getName().equals(ADMISSION)
+                    && !event.getBoolean("accepted") && event.getString("policy").equals("NAIVE"));
+            awaitEvent(event -> event.getEventType().getName().equals(KILL)
+                    && event.getString("kind").equals("IDS") && event.getInt("size") == 1);
+            awaitEvent(event -> event.getEventType().getName().equals(LIST)
+                    && event.getString("sort").equals("ID"));
+            // The pointcut on the ProcessRepository interface matches the proxy created by Spring Data
+            awaitEvent(event -> event.getEventType().getName().equals(REPOSITORY_CALL)
+                    && event.getString("method").equals("getAllByOrderByPid"));
+        } finally {
+            service.killAllProcesses();
+        }
+    }
+
+    /**
+     * Waits until the stream delivers an event matching the condition, the events are flushed about once a second
+     *
+     * @param condition is the expected event
+     */
+    private void awaitEvent(Predicate<RecordedEvent> condition) throws InterruptedException {
+        for (int i = 0; i < 100 && events.stream().noneMatch(condition); i++) Thread.sleep(100);
+        assertThat(events).anyMatch(condition);
+    }
+
+}
@@ -0,0 +1,79 @@
+package com.intuit.task.manager.search;
+
+import com.intuit.task.manager.collections.*;
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.entities.Process;
+import com.intuit.task.manager.entities.Title;
+import com.intuit.task.manager.repo.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.*;
+
+public class InMemorySearchIndexTest {
+
+    private List<Process> processes;
+    private ProcessRepository repository;
+    private TitleDictionary dictionary;
+
+    @BeforeEach
+    void createRepository() {
+        processes = List.of(process(1, "Nightly-sync"), process(2, "nightly-sync"), process(3, "Reindex"));
+        repository = mock(ProcessRepository.class);
+        when(repository.getSummariesAfter(anyLong(), any())).thenReturn(List.of());
+        when(repository.getSummariesAfter(eq(0L), any())).thenReturn(processes.stream()
+                .map(process -> new ProcessSummary(process.getPid(), process.getPriority(), process.getCreated(), process.getTitleId()))
+                .toList());
+        doCallRealMethod().when(repository).forEachSummary(any());
+        when(repository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Set<Long> pids = new HashSet<>();
+            invocation.<Iterable<Long>>getArgument(0).forEach(pids::add);
+            return processes.stream().filter(process -> pids.contains(process.getPid())).toList();
+        });
+        dictionary = mock(TitleDictionary.class);
+        when(dictionary.get(anyInt())).thenAnswer(invocation ->
+                new Title(invocation.getArgument(0), processes.get(invocation.<Integer>getArgument(0) - 1).getTask()));
+    }
+
+    @Test
+    @DisplayName("Searching without the interning")
+    void search() {
+        InMemorySearchIndex index = new InMemorySearchIndex(repository, dictionary, new StaticListableBeanFactory().getBeanProvider(StringInterner.class));
+        assertThat(index.search("NIGHTLY", SearchType.PREFIX, 0, 10)).extracting(Process::getPid).containsExactly(1L, 2L);
+        assertThat(index.search("dex", SearchType.CONTAINS, 0, 10)).extracting(Process::getPid).containsExactly(3L);
+        assertThat(index.search("sync", SearchType.PREFIX, 0, 10)).isEmpty();
+        assertThat(titleOf(index, 1)).isEqualTo("nightly-sync").isNotSameAs(titleOf(index, 2));
+
+        index.onRemoved(List.of(processes.get(0)));
+        assertThat(index.search("nightly", SearchType.PREFIX, 0, 10)).extracting(Process::getPid).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("Sharing the equal titles with the interning")
+    void interned() {
+        StringInterner interner = new StringInterner(16);
+        InMemorySearchIndex index = new InMemorySearchIndex(repository, dictionary,
+                new StaticListableBeanFactory(Map.of("titleInterner", interner)).getBeanProvider(StringInterner.class));
+        assertThat(index.search("nightly", SearchType.PREFIX, 0, 1)).extracting(Process::getPid).containsExactly(1L);
+        assertThat(index.search("nightly", SearchType.PREFIX, 1, 1)).extracting(Process::getPid).containsExactly(2L);
+
+        // The lower-cased titles of both processes are the same instance
+        assertThat(titleOf(index, 1)).isEqualTo("nightly-sync").isSameAs(titleOf(index, 2));
+        assertThat(titleOf(index, 3)).isSameAs(interner.intern("reindex"));
+    }
+
+    private static Process process(long pid, String task) {
+        Process process = new Process(new Title((int) pid, task), PriorityType.LOW);
+        ReflectionTestUtils.setField(process, "pid", pid);
+        return process;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String titleOf(InMemorySearchIndex index, long pid) {
+        return ((LongObjectHashMap<String>) ReflectionTestUtils.getField(index, "titles")).get(pid);
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.intuit.task.manager.service;
+
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.exceptions.TicketNotFoundException;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import org.junit.jupiter.api.*;
+import org.springframework.transaction.PlatformTransactionManager;
+import java.time.Duration;
+import java.util.List;
+
+public class AdmissionQueueTest {
+
+    private AdmissionQueue queue;
+
+    @BeforeEach
+    void createQueue() {
+        TaskService service = mock(TaskService.class);
+        when(service.addProcesses(anyList())).thenAnswer(invocation -> invocation.<List<AdmissionRequest>>getArgument(0).stream()
+                .map(request -> AdmissionResult.accepted(ProcessResponseData.builder().task(request.task()).build()))
+                .toList());
+        queue = new AdmissionQueue(service, mock(IdempotencyCache.class), mock(PlatformTransactionManager.class),
+                10, 10, Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    @Test
+    @DisplayName("Expiring a completed ticket without further requests")
+    void expiration() throws InterruptedException {
+        String id = queue.submit(List.of(new AdmissionRequest("Expiring", CreatingType.NAIVE, PriorityType.LOW))).get(0).getId();
+        for (int i = 0; i < 100 && queue.getTicket(id).getStatus() == TicketStatus.PENDING; i++) Thread.sleep(10);
+        assertThat(queue.getTicket(id).getStatus()).isEqualTo(TicketStatus.DONE);
+
+        // No other request comes, the ticket is removed by the expiration thread
+        for (int i = 0; i < 50 && isPresent(id); i++) Thread.sleep(100);
+        assertThatThrownBy(() -> queue.getTicket(id)).isInstanceOf(TicketNotFoundException.class);
+    }
+
+    private boolean isPresent(String id) {
+        try {
+            queue.getTicket(id);
+            return true;
+        } catch (TicketNotFoundException e) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.intuit.task.manager.throttling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.*;
+import javax.servlet.*;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class RequestThrottlingFilterTest {
+
+    /**
+     * A rate at which no token is refilled during a test
+     */
+    private static final double SLOW = 0.001;
+
+    private ThrottlingProperties properties;
+
+    @BeforeEach
+    void createProperties() {
+        properties = new ThrottlingProperties();
+        properties.setRead(new ThrottlingProperties.Budget(SLOW, 10, SLOW, 2, 4, 1, 8, Duration.ofSeconds(10)));
+        properties.setWrite(new ThrottlingProperties.Budget(SLOW, 3, SLOW, 1, 4, 1, 8, Duration.ofSeconds(10)));
+    }
+
+    @Test
+    @DisplayName("Token bucket: burst, wait time and refund")
+    void tokenBucket() {
+        TokenBucket bucket = new TokenBucket(1, 2);
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        bucket.refund();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Concurrency limit: increase while fast, decrease when slow")
+    void concurrencyLimit() {
+        long target = TimeUnit.MILLISECONDS.toNanos(100);
+        ConcurrencyLimit limit = new ConcurrencyLimit(2, 1, 3, target);
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        // Completed at the limit within the target latency
+        for (int i = 0; i < 4; i++) {
+            limit.release(0, false);
+            limit.release(0, false);
+            limit.tryAcquire();
+            limit.tryAcquire();
+        }
+        assertThat(limit.getLimit()).isEqualTo(3);
+        limit.release(0, false);
+        limit.release(0, false);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+            limit.release(target + 1, false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(1);
+        assertThatThrownBy(() -> new ConcurrencyLimit(1, 2, 3, target)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Rejecting a client over its rate with 429 and Retry-After")
+    void clientRate() throws Exception {
+        RequestThrottlingFilter filter = new RequestThrottlingFilter(properties, new ObjectMapper());
+        assertThat(perform(filter, "POST", "10.0.0.1", null).getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse rejected = perform(filter, "POST", "10.0.0.1", null);
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(rejected.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        assertThat(rejected.getContentAsString()).contains("rate limit");
+
+        // Reads have their own budget and the other clients their own buckets
+        assertThat(perform(filter, "GET", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "10.0.0.2", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Trusting the client header only from a proxy")
+    void clientHeader() throws Exception {
+        properties.setTrustedProxies(Set.of("10.0.0.100"));
+        RequestThrottlingFilter filter = new RequestThrottlingFilter(properties, new ObjectMapper());
+
+        // A changing header doesn't give a direct client a new bucket
+        assertThat(perform(filter, "POST", "10.0.0.1", "a").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "10.0.0.1", "b").getStatus()).isEqualTo(429);
+
+        assertThat(perform(filter, "POST", "10.0.0.100", "a").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "10.0.0.100", "b").getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "10.0.0.100", "b").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Spending the global budget only on the admitted requests")
+    void globalRate() throws Exception {
+        RequestThrottlingFilter filter = new RequestThrottlingFilter(properties, new ObjectMapper());
+        assertThat(perform(filter, "POST", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        for (int i = 0; i < 5; i++) assertThat(perform(filter, "POST", "10.0.0.1", null).getStatus()).isEqualTo(429);
+
+        // The global burst of writes is 3
+        assertThat(perform(filter, "POST", "10.0.0.2", null).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "10.0.0.3", null).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "10.0.0.4", null).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    @DisplayName("Forgetting the least recently seen clients")
+    void maxClients() throws Exception {
+        properties.setMaxClients(1);
+        properties.getWrite().setGlobalBurst(100);
+        RequestThrottlingFilter filter = new RequestThrottlingFilter(properties, new ObjectMapper());
+        assertThat(perform(filter, "POST", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "10.0.0.1", null).getStatus()).isEqualTo(429);
+
+        // The bucket of the first client is dropped for the second one
+        assertThat(perform(filter, "POST", "10.0.0.2", null).getStatus()).isEqualTo(200);
+        assertThat(perform(filter, "POST", "10.0.0.1", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Rejecting requests over the concurrency limit")
+    void concurrency() throws Exception {
+        properties.setRead(new ThrottlingProperties.Budget(SLOW, 10, SLOW, 10, 1, 1, 1, Duration.ofSeconds(10)));
+        RequestThrottlingFilter filter = new RequestThrottlingFilter(properties, new ObjectMapper());
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+
+        // The second request arrives while the first one is being processed
+        MockHttpServletResponse outer = perform(filter, "GET", "10.0.0.1", null,
+                (request, response) -> nested[0] = perform(filter, "GET", "10.0.0.2", null));
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested[0].getStatus()).isEqualTo(429);
+        assertThat(nested[0].getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(perform(filter, "GET", "10.0.0.2", null).getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse perform(RequestThrottlingFilter filter, String method, String address, String client)
+            throws IOException, ServletException {
+        return perform(filter, method, address, client, (request, response) -> {});
+    }
+
+    private MockHttpServletResponse perform(RequestThrottlingFilter filter, String method, String address, String client,
+                                            FilterChain chain) throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/tasks");
+        request.setRemoteAddr(address);
+        if (client != null) request.addHeader(properties.getClientHeader(), client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+}
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS titles (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    task VARCHAR(255) NOT NULL UNIQUE
+);
+CREATE TABLE IF NOT EXISTS processes (
+    pid BIGINT AUTO_INCREMENT PRIMARY KEY,
+    priority INT NOT NULL,
+    created TIMESTAMP,
+    title_id INT NOT NULL,
+    lease_id VARCHAR(255),
+    lease_expires TIMESTAMP
+);
@@ -0,0 +1,44 @@
+package com.intuit.task.manager.collections;
+
+/**
+ * Helper methods of the open-addressing hash tables
+ */
+final class Hashing {
+
+    /**
+     * The maximum share of occupied slots, the table grows when it is exceeded
+     */
+    static final float LOAD_FACTOR = 0.5f;
+
+    private Hashing() {
+    }
+
+    /**
+     * Spreads the bits of a key (the finalizer of MurmurHash3), so sequential pids don't form clusters
+     *
+     * @param key is the key
+     * @return the mixed hash
+     */
+    static int mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * Calculates the size of a table
+     *
+     * @param expectedSize is the number of keys that must fit without growing
+     * @return the power of two not less than expectedSize / LOAD_FACTOR
+     */
+    static int tableSize(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("The expected size can't be negative: " + expectedSize);
+        long required = Math.max(4, (long) Math.ceil(expectedSize / LOAD_FACTOR));
+        if (required > 1 << 30) throw new IllegalArgumentException("The expected size is too large: " + expectedSize);
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+}
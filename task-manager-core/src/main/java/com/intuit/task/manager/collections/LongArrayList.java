@@ -0,0 +1,97 @@
+package com.intuit.task.manager.collections;
+
+import java.util.*;
+import java.util.function.LongConsumer;
+
+/**
+ * A growable array of primitive long values (pids). Not thread-safe.
+ */
+public class LongArrayList {
+
+    private long[] elements;
+    private int size;
+
+    public LongArrayList() {
+        this(8);
+    }
+
+    /**
+     * Instantiates a new list
+     *
+     * @param capacity is the number of elements that fit without growing
+     */
+    public LongArrayList(int capacity) {
+        elements = new long[Math.max(1, capacity)];
+    }
+
+    public void add(long value) {
+        if (size == elements.length) elements = Arrays.copyOf(elements, Math.max(8, size + (size >> 1)));
+        elements[size++] = value;
+    }
+
+    /**
+     * Getting an element
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     * @param index is the index of the element
+     * @return the element
+     */
+    public long get(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the elements in ascending order
+     */
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) action.accept(elements[i]);
+    }
+
+    /**
+     * Copies a range of elements
+     *
+     * @param from is the first index, inclusive
+     * @param to is the last index, exclusive
+     * @return the array of elements
+     */
+    public long[] toArray(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Boxes a range of elements, e.g. for a repository call that takes an Iterable of IDs
+     *
+     * @param from is the first index, inclusive
+     * @param to is the last index, exclusive
+     * @return the list of boxed elements
+     */
+    public List<Long> boxed(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        List<Long> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) result.add(elements[i]);
+        return result;
+    }
+
+}
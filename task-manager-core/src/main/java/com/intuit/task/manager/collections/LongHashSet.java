@@ -0,0 +1,151 @@
+package com.intuit.task.manager.collections;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of primitive long values (pids).
+ *
+ * Uses open addressing with linear probing and backward-shift deletion, nothing is allocated per element.
+ * Zero marks a free slot, the zero value itself is tracked separately. Not thread-safe.
+ */
+public class LongHashSet {
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(8);
+    }
+
+    /**
+     * Instantiates a new set
+     *
+     * @param expectedSize is the number of elements that fit without growing
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(Hashing.tableSize(expectedSize));
+    }
+
+    /**
+     * Adds a value
+     *
+     * @param value is the value
+     * @return true if the value wasn't present
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero) return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int i = Hashing.mix(value) & mask;
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == value) return false;
+        }
+        keys[i] = value;
+        if (++size > resizeAt) rehash(keys.length << 1);
+        return true;
+    }
+
+    /**
+     * Checks whether the value is present
+     *
+     * @param value is the value
+     * @return true if the value is present
+     */
+    public boolean contains(long value) {
+        if (value == 0) return hasZero;
+        for (int i = Hashing.mix(value) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a value
+     *
+     * @param value is the value
+     * @return true if the value was present
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (!hasZero) return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+        for (int i = Hashing.mix(value) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == value) {
+                shiftBack(i);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calls the action for every value
+     *
+     * @param action is the action
+     */
+    public void forEach(LongConsumer action) {
+        if (hasZero) action.accept(0);
+        for (long key : keys) {
+            if (key != 0) action.accept(key);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * Closes the gap left by a removed value by moving back the following values of the probe sequence
+     *
+     * @param gap is the index of the removed value
+     */
+    private void shiftBack(int gap) {
+        for (int i = (gap + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = Hashing.mix(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        mask = tableSize - 1;
+        resizeAt = (int) (tableSize * Hashing.LOAD_FACTOR);
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        allocate(tableSize);
+        for (long key : oldKeys) {
+            if (key == 0) continue;
+            int i = Hashing.mix(key) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = key;
+        }
+    }
+
+}
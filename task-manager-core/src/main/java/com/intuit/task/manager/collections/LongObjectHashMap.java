@@ -0,0 +1,191 @@
+package com.intuit.task.manager.collections;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A map from primitive long keys (pids) to objects.
+ *
+ * Uses open addressing with linear probing and backward-shift deletion, so neither keys nor entries
+ * are allocated per mapping. Zero marks a free slot, the zero key itself is stored separately.
+ * Not thread-safe.
+ *
+ * @param <V> the type of values
+ */
+public class LongObjectHashMap<V> {
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public LongObjectHashMap() {
+        this(8);
+    }
+
+    /**
+     * Instantiates a new map
+     *
+     * @param expectedSize is the number of mappings that fit without growing
+     */
+    public LongObjectHashMap(int expectedSize) {
+        allocate(Hashing.tableSize(expectedSize));
+    }
+
+    /**
+     * Getting a value
+     *
+     * @param key is the key
+     * @return the value or null if there is no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) return zeroValue;
+        for (int i = Hashing.mix(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) return (V) values[i];
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether there is a mapping for the key
+     *
+     * @param key is the key
+     * @return true if the key is present
+     */
+    public boolean containsKey(long key) {
+        if (key == 0) return hasZeroKey;
+        for (int i = Hashing.mix(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds or replaces a mapping
+     *
+     * @param key is the key
+     * @param value is the value
+     * @return the previous value or null if there was no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            V previous = zeroValue;
+            if (!hasZeroKey) size++;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        int i = Hashing.mix(key) & mask;
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > resizeAt) rehash(keys.length << 1);
+        return null;
+    }
+
+    /**
+     * Removes a mapping
+     *
+     * @param key is the key
+     * @return the removed value or null if there was no mapping for the key
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V previous = zeroValue;
+            if (hasZeroKey) size--;
+            hasZeroKey = false;
+            zeroValue = null;
+            return previous;
+        }
+        for (int i = Hashing.mix(key) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V previous = (V) values[i];
+                shiftBack(i);
+                size--;
+                return previous;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Calls the action for every value
+     *
+     * @param action is the action
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        if (hasZeroKey) action.accept(zeroValue);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) action.accept((V) values[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * Closes the gap left by a removed entry by moving back the following entries of the probe sequence
+     *
+     * @param gap is the index of the removed entry
+     */
+    private void shiftBack(int gap) {
+        for (int i = (gap + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = Hashing.mix(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+    }
+
+    private void allocate(int tableSize) {
+        keys = new long[tableSize];
+        values = new Object[tableSize];
+        mask = tableSize - 1;
+        resizeAt = (int) (tableSize * Hashing.LOAD_FACTOR);
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(tableSize);
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == 0) continue;
+            int i = Hashing.mix(oldKeys[j]) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.intuit.task.manager.collections;
+
+/**
+ * The bounded intern pool of strings: a direct-mapped cache of recently seen strings
+ *
+ * Every string is mapped to one slot by its hash. If the slot holds an equal string, that instance is returned
+ * and the new one can be collected, otherwise the new string replaces it. Repetitive strings (e.g. titles made
+ * from a small set of templates) converge to shared instances, while unique strings only overwrite slots,
+ * so the pool never grows and never has to be cleaned up.
+ *
+ * The pool is thread-safe without locking: a string is immutable, so a slot can be read and replaced by any thread.
+ */
+public class StringInterner {
+
+    private final String[] slots;
+    private final int mask;
+
+    /**
+     * Instantiates a new StringInterner
+     *
+     * @param capacity is the number of strings to keep, rounded up to a power of two
+     */
+    public StringInterner(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        slots = new String[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Getting the shared instance of a string
+     *
+     * @param value is a string or null
+     * @return the equal string held by the pool or the value itself
+     */
+    public String intern(String value) {
+        if (value == null) return null;
+        int slot = Hashing.mix(value.hashCode()) & mask;
+        String cached = slots[slot];
+        if (value.equals(cached)) return cached;
+        slots[slot] = value;
+        return value;
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.intuit.task.manager.core;
+
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.exceptions.*;
+
+/**
+ * The admission engine: decides whether a new process can be stored and which process is evicted to make room.
+ *
+ * NAIVE admits while the capacity allows, FIFO evicts the oldest process, PRIORITY evicts the oldest process
+ * with a lower priority. The rejections are stackless and preallocated for the current capacity, because under
+ * saturation they are the most frequent outcome. The caller is responsible for serializing the admissions.
+ *
+ * @param <P> the type of the stored process
+ * @see ProcessStore
+ */
+public class AdmissionPolicy<P> {
+
+    private final ProcessStore<P> store;
+    private volatile int capacity;
+    private volatile MaximumCapacityExceededException capacityExceeded;
+    private volatile UnableToApplyPriorityOrderException priorityOrderUnavailable;
+
+    /**
+     * Instantiates a new AdmissionPolicy
+     *
+     * @throws IllegalArgumentException if the capacity isn't greater than zero
+     * @param store the storage backend
+     * @param capacity the maximum number of processes
+     */
+    public AdmissionPolicy(ProcessStore<P> store, int capacity) {
+        this.store = store;
+        setCapacity(capacity);
+    }
+
+    /**
+     * Admits a new process
+     *
+     * @throws MaximumCapacityExceededException if the capacity doesn't allow adding a NAIVE process
+     * @throws UnableToApplyPriorityOrderException if there is no process with a lower priority to evict
+     * @param process is the new process
+     * @param priority is the priority of the new process
+     * @param creatingType is the way of adding
+     * @see CreatingType
+     * @return the stored process and the evicted one
+     */
+    public Admission<P> admit(P process, PriorityType priority, CreatingType creatingType) {
+        P evicted = null;
+        if (store.count() >= capacity) {
+            evicted = switch (creatingType) {
+                case NAIVE -> throw capacityExceeded;
+                case FIFO -> store.getOldest();
+                case PRIORITY -> store.getOldestWithPriorityBelow(priority);
+            };
+            if (evicted == null) throw priorityOrderUnavailable;
+        }
+        // The new process is stored first, so a failed insertion doesn't lose the evicted one
+        P stored = store.insert(process);
+        if (evicted != null) store.remove(evicted);
+        return new Admission<>(stored, evicted);
+    }
+
+    /**
+     * The rejection fast path
+     * Rejects a process that can't be admitted according to the counters maintained by the caller,
+     * without touching the store.
+     *
+     * @throws MaximumCapacityExceededException if the capacity doesn't allow adding a NAIVE process
+     * @throws UnableToApplyPriorityOrderException if there is no process with a lower priority to evict
+     * @param count is the number of stored processes
+     * @param creatingType is the way of adding
+     * @param lowerPriorityAvailable whether there is a process with a lower priority than the new one
+     */
+    public void rejectIfFull(long count, CreatingType creatingType, boolean lowerPriorityAvailable) {
+        if (count < capacity) return;
+        switch (creatingType) {
+            case NAIVE -> throw capacityExceeded;
+            case PRIORITY -> {
+                if (!lowerPriorityAvailable) throw priorityOrderUnavailable;
+            }
+            case FIFO -> { }
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Changes the capacity and preallocates its rejections
+     * The exceptions are stackless and immutable, so one instance is shared by all rejected requests.
+     *
+     * @throws IllegalArgumentException if the capacity isn't greater than zero
+     * @param capacity is the maximum number of processes
+     */
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(String.format("The capacity (%d) must be greater than zero", capacity));
+        }
+        capacityExceeded = new MaximumCapacityExceededException(String.format(
+                "The task manager has already accepted the maximum number of tasks: %d", capacity));
+        priorityOrderUnavailable = new UnableToApplyPriorityOrderException(String.format(
+                "The task manager has already accepted the maximum number of tasks (%d) " +
+                "and none of them has a lower priority than the current one.", capacity));
+        this.capacity = capacity;
+    }
+
+    /**
+     * The result of an admission
+     *
+     * @param process is the stored process
+     * @param evicted is the process evicted to make room or null
+     * @param <P> the type of the stored process
+     */
+    public record Admission<P>(P process, P evicted) {
+    }
+
+}
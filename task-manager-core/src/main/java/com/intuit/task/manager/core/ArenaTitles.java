@@ -0,0 +1,77 @@
+package com.intuit.task.manager.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The titles stored off-heap one after another, each one as its length followed by the UTF-8 bytes
+ * The reference is the offset of the title in the arena, the space of the removed titles is reclaimed by compaction.
+ */
+class ArenaTitles implements TitleColumn {
+
+    private ByteBuffer arena;
+    private int end;
+    private ByteBuffer compacted;
+    private int compactedEnd;
+
+    ArenaTitles(int capacity) {
+        arena = ByteBuffer.allocateDirect(capacity);
+    }
+
+    @Override
+    public int add(String title) {
+        byte[] bytes = title.getBytes(StandardCharsets.UTF_8);
+        int length = Integer.BYTES + bytes.length;
+        if (end + (long) length > arena.capacity()) {
+            if (end + (long) length > Integer.MAX_VALUE) throw new IllegalStateException("The title arena is full");
+            ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE,
+                    Math.max(end + (long) length, arena.capacity() * 2L)));
+            grown.put(0, arena, 0, end);
+            arena = grown;
+        }
+        int reference = end;
+        arena.putInt(reference, bytes.length);
+        arena.put(reference + Integer.BYTES, bytes);
+        end += length;
+        return reference;
+    }
+
+    @Override
+    public String get(int reference) {
+        byte[] bytes = new byte[arena.getInt(reference)];
+        arena.get(reference + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void remove(int reference) {
+        // Reclaimed by compaction
+    }
+
+    @Override
+    public void beginCompaction() {
+        compacted = ByteBuffer.allocateDirect(arena.capacity());
+        compactedEnd = 0;
+    }
+
+    @Override
+    public int relocate(int reference) {
+        int length = Integer.BYTES + arena.getInt(reference);
+        compacted.put(compactedEnd, arena, reference, length);
+        compactedEnd += length;
+        return compactedEnd - length;
+    }
+
+    @Override
+    public void endCompaction() {
+        arena = compacted;
+        end = compactedEnd;
+        compacted = null;
+    }
+
+    @Override
+    public long getReservedBytes() {
+        return arena.capacity();
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.intuit.task.manager.core;
+
+import java.util.*;
+
+/**
+ * The dictionary-encoded titles: each distinct title is kept once on the heap and the reference is its code
+ * The codes of the titles that are no longer used are reused. Reading a title returns the shared instance.
+ */
+class DictionaryTitles implements TitleColumn {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] titles = new String[64];
+    private int[] references = new int[64];
+    private int[] free = new int[16];
+    private int freeCount;
+    private int next;
+
+    @Override
+    public int add(String title) {
+        Integer code = codes.get(title);
+        if (code == null) {
+            code = freeCount > 0 ? free[--freeCount] : next++;
+            if (code == titles.length) {
+                titles = Arrays.copyOf(titles, code * 2);
+                references = Arrays.copyOf(references, code * 2);
+            }
+            titles[code] = title;
+            codes.put(title, code);
+        }
+        references[code]++;
+        return code;
+    }
+
+    @Override
+    public String get(int reference) {
+        return titles[reference];
+    }
+
+    @Override
+    public void remove(int reference) {
+        if (--references[reference] > 0) return;
+        codes.remove(titles[reference]);
+        titles[reference] = null;
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = reference;
+    }
+
+    @Override
+    public void beginCompaction() {
+    }
+
+    @Override
+    public int relocate(int reference) {
+        return reference;
+    }
+
+    @Override
+    public void endCompaction() {
+    }
+
+    @Override
+    public long getReservedBytes() {
+        return 0;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.intuit.task.manager.core;
+
+import com.intuit.task.manager.collections.*;
+import com.intuit.task.manager.dto.*;
+import java.util.*;
+
+/**
+ * The default storage backend of the embedded task manager
+ *
+ * The processes are kept in a map by pid and, for each priority, in a set ordered by the creation time,
+ * so the eviction candidates are found without scanning. The identifiers are assigned sequentially.
+ * Optionally the titles are interned, so the processes with equal titles share one instance.
+ * The store isn't thread-safe.
+ * @see StringInterner
+ */
+public class InMemoryProcessStore implements ProcessStore<ProcessRecord> {
+
+    /**
+     * The number of distinct titles that can be shared at once
+     */
+    private static final int INTERNED_TITLES = 4096;
+
+    private static final Comparator<ProcessRecord> BY_CREATED = Comparator.comparing(ProcessRecord::created)
+            .thenComparingLong(ProcessRecord::pid);
+
+    private final LongObjectHashMap<ProcessRecord> byPid = new LongObjectHashMap<>();
+    private final Map<PriorityType, TreeSet<ProcessRecord>> byPriority = new EnumMap<>(PriorityType.class);
+    private final StringInterner titles;
+    private long lastPid;
+
+    public InMemoryProcessStore() {
+        this(false);
+    }
+
+    /**
+     * Instantiates a new InMemoryProcessStore
+     *
+     * @param intern whether the titles are interned
+     */
+    public InMemoryProcessStore(boolean intern) {
+        for (PriorityType priority : PriorityType.values()) byPriority.put(priority, new TreeSet<>(BY_CREATED));
+        titles = intern ? new StringInterner(INTERNED_TITLES) : null;
+    }
+
+    @Override
+    public long count() {
+        return byPid.size();
+    }
+
+    @Override
+    public ProcessRecord getOldest() {
+        return getOldestWithPriorityBelow(null);
+    }
+
+    @Override
+    public ProcessRecord getOldestWithPriorityBelow(PriorityType priority) {
+        ProcessRecord oldest = null;
+        for (PriorityType candidate : PriorityType.values()) {
+            if (candidate == priority) break;
+            TreeSet<ProcessRecord> processes = byPriority.get(candidate);
+            if (!processes.isEmpty() && (oldest == null || BY_CREATED.compare(processes.first(), oldest) < 0)) {
+                oldest = processes.first();
+            }
+        }
+        return oldest;
+    }
+
+    @Override
+    public ProcessRecord insert(ProcessRecord process) {
+        String task = titles != null ? titles.intern(process.task()) : process.task();
+        long pid = process.pid() != 0 ? process.pid() : lastPid + 1;
+        lastPid = Math.max(lastPid, pid);
+        ProcessRecord stored = new ProcessRecord(pid, task, process.priority(), process.created());
+        byPid.put(stored.pid(), stored);
+        byPriority.get(stored.priority()).add(stored);
+        return stored;
+    }
+
+    @Override
+    public void remove(ProcessRecord process) {
+        ProcessRecord stored = byPid.remove(process.pid());
+        if (stored != null) byPriority.get(stored.priority()).remove(stored);
+    }
+
+    @Override
+    public ProcessRecord get(long pid) {
+        return byPid.get(pid);
+    }
+
+    @Override
+    public List<ProcessRecord> list(SortingType sort) {
+        List<ProcessRecord> result = new ArrayList<>(byPid.size());
+        byPriority.values().forEach(result::addAll);
+        switch (sort) {
+            case ID -> result.sort(Comparator.comparingLong(ProcessRecord::pid));
+            case DATE -> result.sort(BY_CREATED);
+            case PRIORITY -> { }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.intuit.task.manager.core;
+
+/**
+ * A listener of the modifications of the embedded task manager
+ *
+ * The methods are called under the write lock of the task manager in the order of the modifications,
+ * so they must not block. Every modification has the next sequence number of the task manager.
+ * An eviction by an admission is reported as a removal followed by the addition.
+ * @see TaskManager#subscribe
+ */
+public interface MutationListener {
+
+    /**
+     * @param sequence is the number of the modification
+     * @param process is the stored process
+     */
+    void added(long sequence, ProcessRecord process);
+
+    /**
+     * @param sequence is the number of the modification
+     * @param process is the killed or evicted process
+     */
+    void removed(long sequence, ProcessRecord process);
+
+    /**
+     * Followed by the removals of the evicted processes if the capacity was decreased
+     *
+     * @param sequence is the number of the modification
+     * @param capacity is the new capacity
+     */
+    void capacityChanged(long sequence, int capacity);
+
+}
@@ -0,0 +1,234 @@
+package com.intuit.task.manager.core;
+
+import com.intuit.task.manager.dto.*;
+import java.nio.ByteBuffer;
+import java.time.*;
+import java.util.*;
+
+/**
+ * The compact storage backend of the embedded task manager for very large capacities
+ *
+ * The processes are kept off-heap in a struct-of-arrays layout: a direct buffer per column (pid, creation
+ * time in epoch milliseconds, priority byte and title reference) and an arena with the UTF-8 titles.
+ * A stored process costs 25 bytes plus its title (21 in the columns, 4 for the length of the title in the arena)
+ * and creates no objects for the garbage collector; a ProcessRecord is materialized only when a process is read.
+ *
+ * With the dictionary encoding each distinct title is kept once (on the heap) and the title column holds its code,
+ * so a process costs 21 bytes and the processes read from the store share the title instances.
+ * It suits titles made from a small set of templates, every unique title costs a dictionary entry.
+ *
+ * The slots are appended in the order of the pids, which is also the order of creation, so a pid is found
+ * by a binary search and the oldest process of each priority by a cursor that only moves forward.
+ * A removed slot is marked in the priority column, the store is compacted once the removed slots outnumber
+ * the live ones. Sub-millisecond precision of the creation time isn't kept, and a creation time earlier than the last
+ * stored one (e.g. after the wall clock has been set back) is stored as the last one. The store isn't thread-safe.
+ */
+public class OffHeapProcessStore implements ProcessStore<ProcessRecord> {
+
+    private static final byte REMOVED = -1;
+    private static final int MIN_COMPACTION = 1024;
+    private static final PriorityType[] PRIORITIES = PriorityType.values();
+
+    private ByteBuffer pids;
+    private ByteBuffer created;
+    private ByteBuffer priorities;
+    private ByteBuffer titleReferences;
+    private final TitleColumn titles;
+
+    private int size;
+    private int live;
+    private long lastPid;
+    private long lastCreated = Long.MIN_VALUE;
+
+    /**
+     * The first slot that may hold a live process of each priority
+     */
+    private final int[] heads = new int[PRIORITIES.length];
+
+    public OffHeapProcessStore() {
+        this(1024, false);
+    }
+
+    public OffHeapProcessStore(int expectedSize) {
+        this(expectedSize, false);
+    }
+
+    /**
+     * Instantiates a new OffHeapProcessStore
+     *
+     * @param expectedSize the number of processes to allocate the columns for, they grow when it is exceeded
+     * @param dictionary whether the titles are dictionary-encoded
+     */
+    public OffHeapProcessStore(int expectedSize, boolean dictionary) {
+        int capacity = Math.max(16, expectedSize);
+        pids = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        created = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        priorities = ByteBuffer.allocateDirect(capacity);
+        titleReferences = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+        titles = dictionary ? new DictionaryTitles() : new ArenaTitles(capacity * 16);
+    }
+
+    @Override
+    public long count() {
+        return live;
+    }
+
+    @Override
+    public ProcessRecord getOldest() {
+        return getOldestWithPriorityBelow(null);
+    }
+
+    @Override
+    public ProcessRecord getOldestWithPriorityBelow(PriorityType priority) {
+        int oldest = size;
+        int bound = priority == null ? PRIORITIES.length : priority.ordinal();
+        for (int p = 0; p < bound; p++) {
+            int head = heads[p];
+            while (head < size && priorities.get(head) != p) head++;
+            heads[p] = head;
+            oldest = Math.min(oldest, head);
+        }
+        return oldest < size ? read(oldest) : null;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the assigned identifier isn't greater than the last stored one
+     */
+    @Override
+    public ProcessRecord insert(ProcessRecord process) {
+        // The slots must stay in the order of creation, which a clock stepping back would break
+        long millis = Math.max(process.created().toInstant(ZoneOffset.UTC).toEpochMilli(), lastCreated);
+        if (process.pid() != 0 && process.pid() <= lastPid) {
+            throw new IllegalArgumentException("The processes must be stored in the order of identifiers");
+        }
+        ensureCapacity();
+        lastPid = process.pid() != 0 ? process.pid() : lastPid + 1;
+        pids.putLong(size * Long.BYTES, lastPid);
+        created.putLong(size * Long.BYTES, millis);
+        priorities.put(size, (byte) process.priority().ordinal());
+        titleReferences.putInt(size * Integer.BYTES, titles.add(process.task()));
+        lastCreated = millis;
+        live++;
+        return read(size++);
+    }
+
+    @Override
+    public void remove(ProcessRecord process) {
+        int slot = find(process.pid());
+        if (slot < 0) return;
+        priorities.put(slot, REMOVED);
+        titles.remove(titleReferences.getInt(slot * Integer.BYTES));
+        live--;
+        int removed = size - live;
+        if (removed >= MIN_COMPACTION && removed > live) compact();
+    }
+
+    @Override
+    public ProcessRecord get(long pid) {
+        int slot = find(pid);
+        return slot < 0 ? null : read(slot);
+    }
+
+    @Override
+    public List<ProcessRecord> list(SortingType sort) {
+        List<ProcessRecord> result = new ArrayList<>(live);
+        if (sort == SortingType.PRIORITY) {
+            for (int p = 0; p < PRIORITIES.length; p++) {
+                for (int slot = heads[p]; slot < size; slot++) {
+                    if (priorities.get(slot) == p) result.add(read(slot));
+                }
+            }
+        } else {
+            // The order of the slots is the order of both the pids and the creation times
+            for (int slot = 0; slot < size; slot++) {
+                if (priorities.get(slot) != REMOVED) result.add(read(slot));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Getting the memory reserved by the columns and the title arena
+     *
+     * @return the number of off-heap bytes
+     */
+    public long getReservedBytes() {
+        return (long) pids.capacity() + created.capacity() + priorities.capacity() + titleReferences.capacity()
+                + titles.getReservedBytes();
+    }
+
+    /**
+     * Finds the slot of a live process
+     *
+     * @param pid is the process identifier
+     * @return the slot or -1 if the process doesn't exist
+     */
+    private int find(long pid) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long current = pids.getLong(middle * Long.BYTES);
+            if (current < pid) {
+                low = middle + 1;
+            } else if (current > pid) {
+                high = middle - 1;
+            } else {
+                return priorities.get(middle) == REMOVED ? -1 : middle;
+            }
+        }
+        return -1;
+    }
+
+    private ProcessRecord read(int slot) {
+        return new ProcessRecord(
+                pids.getLong(slot * Long.BYTES),
+                titles.get(titleReferences.getInt(slot * Integer.BYTES)),
+                PRIORITIES[priorities.get(slot)],
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(created.getLong(slot * Long.BYTES)), ZoneOffset.UTC));
+    }
+
+    /**
+     * Grows the columns to fit one more process
+     *
+     * @throws IllegalStateException if a column exceeds the size of a direct buffer
+     */
+    private void ensureCapacity() {
+        if (size == priorities.capacity()) {
+            pids = grow(pids, (long) size * Long.BYTES, Long.BYTES);
+            created = grow(created, (long) size * Long.BYTES, Long.BYTES);
+            priorities = grow(priorities, size, 1);
+            titleReferences = grow(titleReferences, (long) size * Integer.BYTES, Integer.BYTES);
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, long used, int extra) {
+        long capacity = Math.max(used + extra, buffer.capacity() * 2L);
+        if (used + extra > Integer.MAX_VALUE) throw new IllegalStateException("The process store is full");
+        ByteBuffer grown = ByteBuffer.allocateDirect((int) Math.min(capacity, Integer.MAX_VALUE));
+        grown.put(0, buffer, 0, (int) used);
+        return grown;
+    }
+
+    /**
+     * Moves the live slots to the beginning of the columns and relocates their titles
+     */
+    private void compact() {
+        titles.beginCompaction();
+        int target = 0;
+        for (int slot = 0; slot < size; slot++) {
+            byte priority = priorities.get(slot);
+            if (priority == REMOVED) continue;
+            int title = titles.relocate(titleReferences.getInt(slot * Integer.BYTES));
+            pids.putLong(target * Long.BYTES, pids.getLong(slot * Long.BYTES));
+            created.putLong(target * Long.BYTES, created.getLong(slot * Long.BYTES));
+            priorities.put(target, priority);
+            titleReferences.putInt(target * Integer.BYTES, title);
+            target++;
+        }
+        titles.endCompaction();
+        size = target;
+        Arrays.fill(heads, 0);
+    }
+
+}
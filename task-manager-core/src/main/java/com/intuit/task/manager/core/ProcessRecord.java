@@ -0,0 +1,15 @@
+package com.intuit.task.manager.core;
+
+import com.intuit.task.manager.dto.PriorityType;
+import java.time.LocalDateTime;
+
+/**
+ * A process of the embedded task manager
+ *
+ * @param pid is the identifier, 0 until the process is stored
+ * @param task is the title
+ * @param priority is the priority
+ * @param created is the creation time
+ */
+public record ProcessRecord(long pid, String task, PriorityType priority, LocalDateTime created) {
+}
@@ -0,0 +1,73 @@
+package com.intuit.task.manager.core;
+
+import com.intuit.task.manager.dto.*;
+import java.util.List;
+
+/**
+ * The storage backend of the task manager.
+ *
+ * The admission engine only needs the counting, lookup of the eviction candidates, insertion and removal;
+ * the remaining methods serve the embedded TaskManager. An implementation is not required to be thread-safe,
+ * the callers serialize the modifications (the TaskManager with a lock, the application with transactions).
+ *
+ * @param <P> the type of the stored process
+ * @see AdmissionPolicy
+ * @see TaskManager
+ */
+public interface ProcessStore<P> {
+
+    /**
+     * Getting the number of stored processes
+     *
+     * @return the number of processes
+     */
+    long count();
+
+    /**
+     * Getting the oldest process
+     *
+     * @return the oldest process or null if the store is empty
+     */
+    P getOldest();
+
+    /**
+     * Getting the oldest process whose priority is lower than the given one
+     *
+     * @param priority is the priority of the new process
+     * @return the oldest process with a lower priority or null if there is no such process
+     */
+    P getOldestWithPriorityBelow(PriorityType priority);
+
+    /**
+     * Storing a new process
+     * A process that already has an identifier (e.g. a replicated one) keeps it.
+     *
+     * @param process is the new process
+     * @return the stored process with an assigned identifier
+     */
+    P insert(P process);
+
+    /**
+     * Removing a process
+     *
+     * @param process is a stored process
+     */
+    void remove(P process);
+
+    /**
+     * Getting a process by its identifier
+     *
+     * @param pid is the process identifier
+     * @return the process or null if it doesn't exist
+     */
+    P get(long pid);
+
+    /**
+     * Getting all processes
+     *
+     * @param sort is the sorting type of the list
+     * @return the sorted list of all processes
+     */
+    List<P> list(SortingType sort);
+
+}
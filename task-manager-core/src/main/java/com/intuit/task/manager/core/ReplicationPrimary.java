@@ -0,0 +1,186 @@
+package com.intuit.task.manager.core;
+
+import java.io.*;
+import java.net.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static com.intuit.task.manager.core.ReplicationProtocol.*;
+
+/**
+ * The primary side of the warm-standby replication
+ *
+ * Listens on a Unix domain socket and streams the modifications of the task manager to a connected standby:
+ * first a snapshot of the current state, then every addition, eviction, kill and change of the capacity in order.
+ * The modifications are put into a bounded backlog under the lock of the task manager and written by a background
+ * thread, so the replication doesn't slow down the task manager. If the standby can't keep up and the backlog
+ * overflows, the standby is disconnected and gets a new snapshot when it reconnects.
+ * One standby is served at a time.
+ *
+ * <pre>
+ * TaskManager manager = TaskManager.builder().build();
+ * ReplicationPrimary primary = new ReplicationPrimary(manager, Path.of("/run/task-manager.sock"));
+ * </pre>
+ *
+ * @see ReplicationStandby
+ */
+public class ReplicationPrimary implements MutationListener, AutoCloseable {
+
+    private static final int DEFAULT_BACKLOG = 65536;
+    private static final int BUFFER_SIZE = 65536;
+
+    private final TaskManager manager;
+    private final Path socket;
+    private final ServerSocketChannel server;
+    private final BlockingQueue<Mutation> backlog;
+    private final Thread sender;
+
+    private volatile SocketChannel standby;
+    private volatile boolean overflow;
+    private volatile boolean closed;
+
+    public ReplicationPrimary(TaskManager manager, Path socket) throws IOException {
+        this(manager, socket, DEFAULT_BACKLOG);
+    }
+
+    /**
+     * Instantiates a new ReplicationPrimary and starts listening
+     * A stale socket file left by a previous run is removed.
+     *
+     * @param manager is the replicated task manager
+     * @param socket is the path of the socket
+     * @param backlog is the maximum number of modifications not yet sent to the standby
+     */
+    public ReplicationPrimary(TaskManager manager, Path socket, int backlog) throws IOException {
+        this.manager = manager;
+        this.socket = socket;
+        this.backlog = new ArrayBlockingQueue<>(backlog);
+        Files.deleteIfExists(socket);
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        this.server.bind(UnixDomainSocketAddress.of(socket));
+        this.sender = new Thread(this::serve, "replication-primary");
+        this.sender.setDaemon(true);
+        this.sender.start();
+    }
+
+    public boolean isConnected() {
+        return standby != null;
+    }
+
+    /**
+     * @return the number of modifications not yet sent to the standby
+     */
+    public int getBacklog() {
+        return backlog.size();
+    }
+
+    @Override
+    public void added(long sequence, ProcessRecord process) {
+        enqueue(new Mutation(ADDED, sequence, now(), process, 0));
+    }
+
+    @Override
+    public void removed(long sequence, ProcessRecord process) {
+        enqueue(new Mutation(REMOVED, sequence, now(), process, 0));
+    }
+
+    @Override
+    public void capacityChanged(long sequence, int capacity) {
+        enqueue(new Mutation(CAPACITY_CHANGED, sequence, now(), null, capacity));
+    }
+
+    /**
+     * Stops the replication, the connected standby is disconnected
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        manager.unsubscribe(this);
+        server.close();
+        SocketChannel channel = standby;
+        if (channel != null) channel.close();
+        sender.interrupt();
+        Files.deleteIfExists(socket);
+    }
+
+    private void enqueue(Mutation mutation) {
+        // The lost modification breaks the sequence, so the standby resynchronizes anyway
+        if (!backlog.offer(mutation)) overflow = true;
+    }
+
+    /**
+     * The loop of the sender thread
+     */
+    private void serve() {
+        while (!closed) {
+            try (SocketChannel channel = server.accept()) {
+                standby = channel;
+                stream(channel);
+            } catch (IOException | RuntimeException e) {
+                // The standby has disconnected, the primary is closed or a modification couldn't be sent;
+                // the connection is dropped and the standby starts over with a snapshot
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                standby = null;
+                manager.unsubscribe(this);
+                backlog.clear();
+                overflow = false;
+            }
+        }
+    }
+
+    /**
+     * Sends a snapshot and then the modifications until the standby disconnects
+     */
+    private void stream(SocketChannel channel) throws IOException, InterruptedException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        out.writeInt(VERSION);
+        TaskManager.Snapshot snapshot = manager.subscribe(this);
+        writeSnapshot(out, snapshot, now());
+        out.flush();
+
+        long last = snapshot.sequence();
+        List<Mutation> batch = new ArrayList<>();
+        while (!closed) {
+            Mutation first = backlog.poll(HEARTBEAT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            if (overflow) throw new IOException("The backlog of the standby has overflowed");
+            if (first == null) {
+                writeHeader(out, HEARTBEAT, last, now());
+            } else {
+                batch.add(first);
+                backlog.drainTo(batch);
+                for (Mutation mutation : batch) write(out, mutation);
+                last = batch.get(batch.size() - 1).sequence;
+                batch.clear();
+            }
+            out.flush();
+        }
+    }
+
+    private void write(DataOutput out, Mutation mutation) throws IOException {
+        writeHeader(out, mutation.type, mutation.sequence, mutation.time);
+        switch (mutation.type) {
+            case ADDED -> writeProcess(out, mutation.process);
+            case REMOVED -> out.writeLong(mutation.process.pid());
+            case CAPACITY_CHANGED -> out.writeInt(mutation.capacity);
+            default -> throw new IllegalStateException("Unknown modification " + mutation.type);
+        }
+    }
+
+    /**
+     * A modification waiting in the backlog
+     *
+     * @param type is the type of the frame
+     * @param sequence is the number of the modification
+     * @param time is the time of the modification in epoch microseconds
+     * @param process is the added or removed process
+     * @param capacity is the new capacity
+     */
+    private record Mutation(byte type, long sequence, long time, ProcessRecord process, int capacity) {
+    }
+
+}
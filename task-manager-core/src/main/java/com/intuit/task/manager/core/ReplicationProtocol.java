@@ -0,0 +1,85 @@
+package com.intuit.task.manager.core;
+
+import com.intuit.task.manager.dto.PriorityType;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.*;
+
+/**
+ * The stream of modifications sent from the primary to the standby
+ *
+ * The stream starts with the version, then a snapshot and the modifications following it are sent as frames.
+ * A frame consists of the type, the sequence number of the modification, the time of the modification on the primary
+ * in epoch microseconds and the payload of the type. A heartbeat is sent when there is nothing to send for a while,
+ * its sequence is the last sent one.
+ */
+final class ReplicationProtocol {
+
+    static final int VERSION = 2;
+
+    static final byte SNAPSHOT = 0;
+    static final byte ADDED = 1;
+    static final byte REMOVED = 2;
+    static final byte CAPACITY_CHANGED = 3;
+    static final byte HEARTBEAT = 4;
+
+    static final long HEARTBEAT_INTERVAL_MILLIS = 100;
+
+    private static final PriorityType[] PRIORITIES = PriorityType.values();
+
+    private ReplicationProtocol() {
+    }
+
+    /**
+     * @return the current time in epoch microseconds, comparable between the processes of a host
+     */
+    static long now() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000;
+    }
+
+    static void writeHeader(DataOutput out, byte type, long sequence, long time) throws IOException {
+        out.writeByte(type);
+        out.writeLong(sequence);
+        out.writeLong(time);
+    }
+
+    static void writeSnapshot(DataOutput out, TaskManager.Snapshot snapshot, long time) throws IOException {
+        writeHeader(out, SNAPSHOT, snapshot.sequence(), time);
+        out.writeInt(snapshot.capacity());
+        out.writeLong(snapshot.lastPid());
+        out.writeInt(snapshot.processes().size());
+        for (ProcessRecord process : snapshot.processes()) writeProcess(out, process);
+    }
+
+    static TaskManager.Snapshot readSnapshot(DataInput in, long sequence) throws IOException {
+        int capacity = in.readInt();
+        long lastPid = in.readLong();
+        int size = in.readInt();
+        List<ProcessRecord> processes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) processes.add(readProcess(in));
+        return new TaskManager.Snapshot(sequence, capacity, lastPid, processes);
+    }
+
+    static void writeProcess(DataOutput out, ProcessRecord process) throws IOException {
+        Instant created = process.created().toInstant(ZoneOffset.UTC);
+        byte[] task = process.task().getBytes(StandardCharsets.UTF_8);
+        out.writeLong(process.pid());
+        out.writeByte(process.priority().ordinal());
+        out.writeLong(created.getEpochSecond());
+        out.writeInt(created.getNano());
+        out.writeInt(task.length);
+        out.write(task);
+    }
+
+    static ProcessRecord readProcess(DataInput in) throws IOException {
+        long pid = in.readLong();
+        PriorityType priority = PRIORITIES[in.readByte()];
+        LocalDateTime created = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        byte[] task = new byte[in.readInt()];
+        in.readFully(task);
+        return new ProcessRecord(pid, new String(task, StandardCharsets.UTF_8), priority, created);
+    }
+
+}
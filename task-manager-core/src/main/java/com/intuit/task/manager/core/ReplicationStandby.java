@@ -0,0 +1,226 @@
+package com.intuit.task.manager.core;
+
+import javax.management.*;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.*;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.intuit.task.manager.core.ReplicationProtocol.*;
+
+/**
+ * The standby side of the warm-standby replication
+ *
+ * Connects to the socket of a primary and applies its modifications to an own task manager, so a promoted standby
+ * can admit processes right away, without loading the state. The standby reconnects while the primary isn't available
+ * and starts over from a new snapshot after every reconnection; the task manager of the standby is replaced then.
+ * The task manager must only be read until the standby is promoted.
+ *
+ * The lag is the time between a modification on the primary and its application on the standby.
+ * If nothing is received for longer than the heartbeat interval, e.g. because the primary has failed,
+ * the lag grows with the time since the last received frame.
+ *
+ * <pre>
+ * ReplicationStandby standby = new ReplicationStandby(Path.of("/run/task-manager.sock"));
+ * ...
+ * TaskManager manager = standby.promote();
+ * </pre>
+ *
+ * @see ReplicationPrimary
+ */
+public class ReplicationStandby implements ReplicationStandbyMXBean, AutoCloseable {
+
+    private static final long RECONNECT_DELAY_MILLIS = 100;
+    private static final int BUFFER_SIZE = 65536;
+
+    private final Path socket;
+    private final Supplier<ProcessStore<ProcessRecord>> stores;
+    private final ObjectName name;
+    private final Thread receiver;
+    private final AtomicLong resyncs = new AtomicLong();
+
+    private volatile TaskManager manager;
+    private volatile SocketChannel channel;
+    private volatile boolean connected;
+    private volatile boolean closed;
+
+    /**
+     * The time of the last received frame on the primary and its delay, in microseconds
+     */
+    private volatile long lastTime = -1;
+    private volatile long lastDelay;
+    private volatile Exception lastFailure;
+
+    public ReplicationStandby(Path socket) {
+        this(socket, InMemoryProcessStore::new);
+    }
+
+    /**
+     * Instantiates a new ReplicationStandby, starts connecting to the primary and registers the metrics
+     *
+     * @throws IllegalStateException if a standby of the same socket is already registered
+     * @param socket is the path of the socket of the primary
+     * @param stores creates an empty store for every snapshot
+     */
+    public ReplicationStandby(Path socket, Supplier<ProcessStore<ProcessRecord>> stores) {
+        this.socket = socket;
+        this.stores = stores;
+        this.manager = TaskManager.builder().store(stores.get()).build();
+        try {
+            this.name = new ObjectName(String.format("com.intuit.task.manager:type=ReplicationStandby,socket=%s",
+                    ObjectName.quote(socket.toString())));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register the metrics of the standby", e);
+        }
+        this.receiver = new Thread(this::receive, "replication-standby");
+        this.receiver.setDaemon(true);
+        this.receiver.start();
+    }
+
+    /**
+     * @return the replicated task manager, read-only until the standby is promoted
+     */
+    public TaskManager getTaskManager() {
+        return manager;
+    }
+
+    @Override
+    public boolean isConnected() {
+        return connected;
+    }
+
+    @Override
+    public long getAppliedSequence() {
+        return manager.getSequence();
+    }
+
+    @Override
+    public long getLagMicros() {
+        long time = lastTime;
+        if (time < 0) return -1;
+        long silence = now() - time - HEARTBEAT_INTERVAL_MILLIS * 1_000;
+        return Math.max(lastDelay, silence);
+    }
+
+    @Override
+    public long getResyncs() {
+        return resyncs.get();
+    }
+
+    /**
+     * @return the cause of the last resynchronization, null if there was none
+     */
+    public Exception getLastFailure() {
+        return lastFailure;
+    }
+
+    /**
+     * @return the replication lag, null if the standby hasn't received anything yet
+     */
+    public Duration getLag() {
+        long lag = getLagMicros();
+        return lag < 0 ? null : Duration.ofNanos(lag * 1_000);
+    }
+
+    /**
+     * Stops the replication and hands over the task manager
+     * No modification of the primary is applied after the method returns.
+     *
+     * @return the task manager with the replicated state
+     */
+    public TaskManager promote() {
+        close();
+        return manager;
+    }
+
+    /**
+     * Stops the replication and unregisters the metrics
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        SocketChannel current = channel;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                // The receiver stops anyway
+            }
+        }
+        receiver.interrupt();
+        try {
+            receiver.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            // Already unregistered
+        }
+    }
+
+    /**
+     * The loop of the receiver thread
+     */
+    private void receive() {
+        while (!closed) {
+            try (SocketChannel current = SocketChannel.open(UnixDomainSocketAddress.of(socket))) {
+                channel = current;
+                if (closed) return;
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(current), BUFFER_SIZE));
+                if (in.readInt() != VERSION) throw new IOException("Unsupported version of the replication");
+                connected = true;
+                apply(in);
+            } catch (IOException | RuntimeException e) {
+                // The primary isn't available or the stream is broken, the state is restored from a new snapshot
+                if (!closed) {
+                    lastFailure = e;
+                    resyncs.incrementAndGet();
+                }
+            } finally {
+                connected = false;
+                channel = null;
+            }
+            try {
+                Thread.sleep(RECONNECT_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies the frames until the stream ends
+     */
+    private void apply(DataInputStream in) throws IOException {
+        while (!closed) {
+            byte type = in.readByte();
+            long sequence = in.readLong();
+            long time = in.readLong();
+            switch (type) {
+                case SNAPSHOT -> {
+                    TaskManager replica = TaskManager.builder().store(stores.get()).build();
+                    replica.restore(readSnapshot(in, sequence));
+                    manager = replica;
+                }
+                case ADDED -> manager.replayAdded(sequence, readProcess(in));
+                case REMOVED -> manager.replayRemoved(sequence, in.readLong());
+                case CAPACITY_CHANGED -> manager.replayCapacityChanged(sequence, in.readInt());
+                case HEARTBEAT -> {
+                    if (sequence != manager.getSequence()) throw new IOException("The standby has missed modifications");
+                }
+                default -> throw new IOException("Unknown frame " + type);
+            }
+            lastDelay = Math.max(0, now() - time);
+            lastTime = time;
+        }
+    }
+
+}
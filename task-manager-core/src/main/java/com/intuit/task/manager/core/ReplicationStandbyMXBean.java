@@ -0,0 +1,27 @@
+package com.intuit.task.manager.core;
+
+/**
+ * The replication metrics of a standby, registered in the platform MBean server
+ * as com.intuit.task.manager:type=ReplicationStandby,socket="..."
+ * @see ReplicationStandby
+ */
+public interface ReplicationStandbyMXBean {
+
+    boolean isConnected();
+
+    /**
+     * @return the sequence number of the last applied modification
+     */
+    long getAppliedSequence();
+
+    /**
+     * @return the replication lag in microseconds, -1 if the standby hasn't received anything yet
+     */
+    long getLagMicros();
+
+    /**
+     * @return the number of failed connection attempts and broken streams, each followed by a reconnection with a new snapshot
+     */
+    long getResyncs();
+
+}
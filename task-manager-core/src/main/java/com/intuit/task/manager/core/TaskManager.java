@@ -0,0 +1,371 @@
+package com.intuit.task.manager.core;
+
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.exceptions.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.*;
+import java.util.function.Supplier;
+
+/**
+ * The embedded task manager
+ *
+ * Provides the operations of the task manager as plain method calls inside the host process,
+ * without Spring, HTTP or a database. The admission follows the same rules as the service
+ * and throws the same exceptions. All operations are thread-safe.
+ *
+ * <pre>
+ * TaskManager manager = TaskManager.builder().capacity(100).build();
+ * ProcessRecord process = manager.add("backup", CreatingType.FIFO, PriorityType.HIGH);
+ * </pre>
+ *
+ * @see AdmissionPolicy
+ * @see ProcessStore
+ * @see ReplicationPrimary
+ */
+public class TaskManager {
+
+    private final ProcessStore<ProcessRecord> store;
+    private final AdmissionPolicy<ProcessRecord> admission;
+    private final Clock clock;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<MutationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * The number of the last modification, guarded by the write lock
+     */
+    private long sequence;
+
+    /**
+     * The last assigned identifier, guarded by the write lock. The identifiers of the removed processes
+     * aren't assigned again, also after a restore from a snapshot.
+     */
+    private long lastPid;
+
+    private TaskManager(ProcessStore<ProcessRecord> store, int capacity, Clock clock) {
+        this.store = store;
+        this.admission = new AdmissionPolicy<>(store, capacity);
+        this.clock = clock;
+        if (store.count() > 0) {
+            List<ProcessRecord> stored = store.list(SortingType.ID);
+            this.lastPid = stored.get(stored.size() - 1).pid();
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create a new process
+     *
+     * @throws NullPointerException if the title is null
+     * @throws MaximumCapacityExceededException if the capacity doesn't allow adding a NAIVE process
+     * @throws UnableToApplyPriorityOrderException if there is no process with a lower priority to evict
+     * @param task is the process title
+     * @param creatingType is the way of adding
+     * @param priority is the process priority
+     * @return the stored process
+     */
+    public ProcessRecord add(String task, CreatingType creatingType, PriorityType priority) {
+        Objects.requireNonNull(task, "The title of a process must not be null");
+        return write(() -> {
+            // The time is taken under the lock, so the processes are stored in the order of creation
+            ProcessRecord process = new ProcessRecord(lastPid + 1, task, priority, LocalDateTime.now(clock));
+            AdmissionPolicy.Admission<ProcessRecord> result = admission.admit(process, priority, creatingType);
+            lastPid = result.process().pid();
+            if (result.evicted() != null) notifyRemoved(result.evicted());
+            notifyAdded(result.process());
+            return result.process();
+        });
+    }
+
+    /**
+     * Getting a process by its number
+     *
+     * @throws ProcessNotFoundException if the process with the specified number was not found
+     * @param pid is the unique process id
+     * @return the process
+     */
+    public ProcessRecord get(long pid) {
+        ProcessRecord process = read(() -> store.get(pid));
+        if (process == null) throw new ProcessNotFoundException(String.format("Process with id %d wasn't found", pid));
+        return process;
+    }
+
+    /**
+     * Getting a list of all processes
+     *
+     * @param sort is the sorting type of the list
+     * @return a sorted list of all processes
+     */
+    public List<ProcessRecord> list(SortingType sort) {
+        return read(() -> store.list(sort));
+    }
+
+    /**
+     * Deleting a single process or a list of processes
+     * Nothing is deleted if one of the processes doesn't exist.
+     *
+     * @throws ProcessNotFoundException if at least one of the process wasn't found
+     * @param pids process ID or list of IDs
+     * @return a list of the deleted processes
+     */
+    public List<ProcessRecord> kill(long... pids) {
+        return write(() -> {
+            Map<Long, ProcessRecord> remove = new LinkedHashMap<>();
+            for (long pid : pids) {
+                ProcessRecord process = store.get(pid);
+                if (process == null) throw new ProcessNotFoundException(String.format("Process with id %d wasn't found", pid));
+                remove.put(pid, process);
+            }
+            remove.values().forEach(this::remove);
+            return List.copyOf(remove.values());
+        });
+    }
+
+    /**
+     * Deleting all processes with specified priority
+     *
+     * @param priority is the priority of the deleted processes
+     * @return a list of the deleted processes
+     */
+    public List<ProcessRecord> killByPriority(PriorityType priority) {
+        return write(() -> {
+            List<ProcessRecord> remove = store.list(SortingType.DATE).stream()
+                    .filter(process -> process.priority() == priority)
+                    .toList();
+            remove.forEach(this::remove);
+            return remove;
+        });
+    }
+
+    /**
+     * Deleting all processes
+     *
+     * @return a list of the deleted processes
+     */
+    public List<ProcessRecord> killAll() {
+        return write(() -> {
+            List<ProcessRecord> remove = store.list(SortingType.DATE);
+            remove.forEach(this::remove);
+            return remove;
+        });
+    }
+
+    public long size() {
+        return read(store::count);
+    }
+
+    public int getCapacity() {
+        return admission.getCapacity();
+    }
+
+    /**
+     * Changing the capacity
+     * After a decrease the oldest processes exceeding the new value are evicted before the method returns.
+     *
+     * @throws IllegalArgumentException if the new value isn't greater than zero
+     * @param capacity is a new capacity value
+     * @return a list of the evicted processes
+     */
+    public List<ProcessRecord> setCapacity(int capacity) {
+        return write(() -> {
+            admission.setCapacity(capacity);
+            sequence++;
+            for (MutationListener listener : listeners) listener.capacityChanged(sequence, capacity);
+            List<ProcessRecord> evicted = new ArrayList<>();
+            while (store.count() > capacity) {
+                ProcessRecord oldest = store.getOldest();
+                remove(oldest);
+                evicted.add(oldest);
+            }
+            return evicted;
+        });
+    }
+
+    /**
+     * Getting the number of the last modification
+     *
+     * @return the sequence number, 0 if nothing was modified
+     */
+    public long getSequence() {
+        return read(() -> sequence);
+    }
+
+    /**
+     * Subscribing to the modifications
+     * The listener receives the modifications following the returned snapshot, without gaps.
+     *
+     * @param listener is the listener
+     * @return the state of the task manager at the moment of the subscription
+     */
+    public Snapshot subscribe(MutationListener listener) {
+        return write(() -> {
+            listeners.add(listener);
+            return new Snapshot(sequence, admission.getCapacity(), lastPid, store.list(SortingType.ID));
+        });
+    }
+
+    public void unsubscribe(MutationListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Replaces the state with a snapshot of another task manager
+     * The processes keep their identifiers and the new ones continue the numbering of the other task manager,
+     * the identifiers of its removed processes aren't assigned again.
+     *
+     * @throws IllegalStateException if the task manager isn't empty
+     * @param snapshot is the state of another task manager
+     */
+    void restore(Snapshot snapshot) {
+        write(() -> {
+            if (store.count() > 0) throw new IllegalStateException("The task manager isn't empty");
+            admission.setCapacity(snapshot.capacity());
+            snapshot.processes().forEach(store::insert);
+            lastPid = snapshot.lastPid();
+            sequence = snapshot.sequence();
+            return null;
+        });
+    }
+
+    /**
+     * Applies an addition made by another task manager, the capacity isn't checked
+     *
+     * @param sequence is the number of the modification
+     * @param process is the stored process with its identifier
+     */
+    void replayAdded(long sequence, ProcessRecord process) {
+        replay(sequence, () -> {
+            ProcessRecord stored = store.insert(process);
+            lastPid = Math.max(lastPid, stored.pid());
+            for (MutationListener listener : listeners) listener.added(sequence, stored);
+        });
+    }
+
+    /**
+     * Applies a removal made by another task manager
+     *
+     * @param sequence is the number of the modification
+     * @param pid is the identifier of the removed process
+     */
+    void replayRemoved(long sequence, long pid) {
+        replay(sequence, () -> {
+            ProcessRecord process = store.get(pid);
+            if (process == null) throw new IllegalStateException(String.format("Process with id %d wasn't found", pid));
+            store.remove(process);
+            for (MutationListener listener : listeners) listener.removed(sequence, process);
+        });
+    }
+
+    /**
+     * Applies a change of the capacity made by another task manager, the evictions follow as removals
+     *
+     * @param sequence is the number of the modification
+     * @param capacity is the new capacity
+     */
+    void replayCapacityChanged(long sequence, int capacity) {
+        replay(sequence, () -> {
+            admission.setCapacity(capacity);
+            for (MutationListener listener : listeners) listener.capacityChanged(sequence, capacity);
+        });
+    }
+
+    private void replay(long sequence, Runnable modification) {
+        write(() -> {
+            if (sequence != this.sequence + 1) {
+                throw new IllegalStateException(String.format("Modification %d doesn't follow %d", sequence, this.sequence));
+            }
+            modification.run();
+            this.sequence = sequence;
+            return null;
+        });
+    }
+
+    private void remove(ProcessRecord process) {
+        store.remove(process);
+        notifyRemoved(process);
+    }
+
+    private void notifyAdded(ProcessRecord process) {
+        sequence++;
+        for (MutationListener listener : listeners) listener.added(sequence, process);
+    }
+
+    private void notifyRemoved(ProcessRecord process) {
+        sequence++;
+        for (MutationListener listener : listeners) listener.removed(sequence, process);
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T write(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The state of a task manager
+     *
+     * @param sequence is the number of the last modification
+     * @param capacity is the capacity
+     * @param lastPid is the last assigned identifier, possibly of a removed process
+     * @param processes are the processes sorted by identifier
+     */
+    public record Snapshot(long sequence, int capacity, long lastPid, List<ProcessRecord> processes) {
+    }
+
+    /**
+     * The builder of the embedded task manager
+     * By default the processes are kept in memory, the capacity is 25 and the time is taken from the system clock.
+     * @see InMemoryProcessStore
+     * @see OffHeapProcessStore
+     */
+    public static class Builder {
+
+        private int capacity = 25;
+        private ProcessStore<ProcessRecord> store;
+        private Clock clock = Clock.systemDefaultZone();
+
+        private Builder() {
+        }
+
+        public Builder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder store(ProcessStore<ProcessRecord> store) {
+            this.store = store;
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the capacity isn't greater than zero
+         * @return a new task manager
+         */
+        public TaskManager build() {
+            return new TaskManager(store != null ? store : new InMemoryProcessStore(), capacity, clock);
+        }
+
+    }
+
+}
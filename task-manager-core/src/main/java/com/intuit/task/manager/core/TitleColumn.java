@@ -0,0 +1,28 @@
+package com.intuit.task.manager.core;
+
+/**
+ * The storage of the titles of OffHeapProcessStore
+ * A title is identified by an int reference kept in the title column of the store.
+ *
+ * @see OffHeapProcessStore
+ */
+interface TitleColumn {
+
+    int add(String title);
+
+    String get(int reference);
+
+    void remove(int reference);
+
+    /**
+     * Starts the compaction, the references of the live processes are then relocated in the order of the slots
+     */
+    void beginCompaction();
+
+    int relocate(int reference);
+
+    void endCompaction();
+
+    long getReservedBytes();
+
+}
@@ -2,7 +2,8 @@ package com.intuit.task.manager.dto;
 
 /**
  * Describes possible ways to add a new process.
- * Each value corresponds to a method in the service implementation.
+ * Each value corresponds to an eviction rule of the admission engine.
+ * @see com.intuit.task.manager.core.AdmissionPolicy
  */
 public enum CreatingType {
     NAIVE, FIFO, PRIORITY
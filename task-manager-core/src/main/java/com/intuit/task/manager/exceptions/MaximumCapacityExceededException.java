@@ -2,9 +2,12 @@ package com.intuit.task.manager.exceptions;
 
 /**
  * Thrown out if it is not possible to add a new process due to exceeding the maximum allowed capacity
+ *
+ * The rejection is a regular outcome under saturation, so the exception carries no stack trace
+ * and the service throws a preallocated instance.
  */
 public class MaximumCapacityExceededException extends RuntimeException {
     public MaximumCapacityExceededException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -3,9 +3,11 @@ package com.intuit.task.manager.exceptions;
 /**
  * Thrown out if it is not possible to add a new process because capacity exceeded
  * and process with lower priority to remove is missing
+ *
+ * Like MaximumCapacityExceededException, it carries no stack trace and is preallocated by the service.
  */
 public class UnableToApplyPriorityOrderException extends RuntimeException {
     public UnableToApplyPriorityOrderException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
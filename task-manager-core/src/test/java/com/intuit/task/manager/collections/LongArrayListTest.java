@@ -0,0 +1,77 @@
+package com.intuit.task.manager.collections;
+
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+
+public class LongArrayListTest {
+
+    @Test
+    @DisplayName("Adding across several growths")
+    void growth() {
+        LongArrayList list = new LongArrayList(0);
+        assertThat(list.isEmpty()).isTrue();
+        for (long value = 0; value < 1_000; value++) list.add(-value);
+        assertThat(list.size()).isEqualTo(1_000);
+        for (int i = 0; i < 1_000; i++) assertThat(list.get(i)).isEqualTo(-i);
+
+        List<Long> values = new ArrayList<>();
+        list.forEach(values::add);
+        assertThat(values).hasSize(1_000).startsWith(0L, -1L, -2L).endsWith(-999L);
+
+        list.clear();
+        assertThat(list.isEmpty()).isTrue();
+        assertThatThrownBy(() -> list.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("Sorting and copying a range")
+    void ranges() {
+        LongArrayList list = new LongArrayList();
+        for (long value : new long[] {5, -3, 0, Long.MAX_VALUE, Long.MIN_VALUE}) list.add(value);
+        list.sort();
+        assertThat(list.toArray()).containsExactly(Long.MIN_VALUE, -3, 0, 5, Long.MAX_VALUE);
+
+        assertThat(list.toArray(1, 3)).containsExactly(-3, 0);
+        assertThat(list.boxed(1, 3)).containsExactly(-3L, 0L);
+        assertThat(list.boxed(0, 5)).hasSize(5);
+        assertThat(list.boxed(5, 5)).isEmpty();
+        assertThat(list.toArray(2, 2)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Checking the bounds against the size, not the capacity")
+    void bounds() {
+        LongArrayList list = new LongArrayList(16);
+        list.add(1);
+        list.add(2);
+        assertThatThrownBy(() -> list.get(2)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.get(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.boxed(0, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.boxed(-1, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.boxed(2, 1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> list.toArray(1, 3)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    @DisplayName("Behaving like an ArrayList")
+    void randomized() {
+        Random random = new Random(42);
+        LongArrayList list = new LongArrayList();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextLong();
+            list.add(value);
+            expected.add(value);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            int from = random.nextInt(expected.size() + 1);
+            int to = from + random.nextInt(expected.size() - from + 1);
+            assertThat(list.boxed(from, to)).isEqualTo(expected.subList(from, to));
+        }
+        list.sort();
+        Collections.sort(expected);
+        assertThat(list.boxed(0, list.size())).isEqualTo(expected);
+    }
+
+}
@@ -0,0 +1,131 @@
+package com.intuit.task.manager.collections;
+
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+
+public class LongHashSetTest {
+
+    /**
+     * The table size of a set created for 16 elements
+     */
+    private static final int TABLE_SIZE = 32;
+
+    @Test
+    @DisplayName("Removing from the middle of a collision chain")
+    void collisionChain() {
+        long[] chain = collidingKeys(TABLE_SIZE, 3, 5);
+        LongHashSet set = new LongHashSet(16);
+        for (long key : chain) assertThat(set.add(key)).isTrue();
+        assertThat(set.add(chain[2])).isFalse();
+
+        // The values after the hole must still be found
+        assertThat(set.remove(chain[2])).isTrue();
+        assertThat(set.remove(chain[2])).isFalse();
+        assertThat(set.contains(chain[2])).isFalse();
+        for (long key : new long[] {chain[0], chain[1], chain[3], chain[4]}) assertThat(set.contains(key)).isTrue();
+        assertThat(set.size()).isEqualTo(4);
+
+        // The freed slot is reused
+        assertThat(set.add(chain[2])).isTrue();
+        assertThat(set.size()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Removing from a collision chain wrapping around the end of the table")
+    void wrappedChain() {
+        long[] chain = collidingKeys(TABLE_SIZE, TABLE_SIZE - 1, 4);
+        long[] other = collidingKeys(TABLE_SIZE, 0, 2);
+        LongHashSet set = new LongHashSet(16);
+        for (long key : chain) set.add(key);
+        for (long key : other) set.add(key);
+
+        assertThat(set.remove(chain[0])).isTrue();
+        assertThat(set.remove(chain[2])).isTrue();
+        for (long key : new long[] {chain[1], chain[3], other[0], other[1]}) assertThat(set.contains(key)).isTrue();
+        assertThat(set.contains(chain[0])).isFalse();
+        assertThat(set.contains(chain[2])).isFalse();
+        assertThat(set.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Growing across several rehashes")
+    void growth() {
+        LongHashSet set = new LongHashSet();
+        for (long value = 1; value <= 10_000; value++) assertThat(set.add(value * 7919)).isTrue();
+        assertThat(set.size()).isEqualTo(10_000);
+        for (long value = 1; value <= 10_000; value++) assertThat(set.contains(value * 7919)).isTrue();
+        assertThat(set.contains(7918)).isFalse();
+
+        List<Long> values = new ArrayList<>();
+        set.forEach(values::add);
+        assertThat(values).hasSize(10_000).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Zero and negative values")
+    void zeroAndNegative() {
+        LongHashSet set = new LongHashSet();
+        assertThat(set.contains(0)).isFalse();
+        assertThat(set.remove(0)).isFalse();
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(0)).isFalse();
+        assertThat(set.add(-1)).isTrue();
+        assertThat(set.add(Long.MIN_VALUE)).isTrue();
+        assertThat(set.add(Long.MAX_VALUE)).isTrue();
+        assertThat(set.size()).isEqualTo(4);
+
+        List<Long> values = new ArrayList<>();
+        set.forEach(values::add);
+        assertThat(values).containsExactlyInAnyOrder(0L, -1L, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        assertThat(set.remove(0)).isTrue();
+        assertThat(set.contains(0)).isFalse();
+        assertThat(set.contains(-1)).isTrue();
+        assertThat(set.size()).isEqualTo(3);
+
+        set.clear();
+        assertThat(set.isEmpty()).isTrue();
+        assertThat(set.contains(-1)).isFalse();
+        assertThatThrownBy(() -> new LongHashSet(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Behaving like a HashSet")
+    void randomized() {
+        Random random = new Random(42);
+        LongHashSet set = new LongHashSet();
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            // A small range makes the removals and the repeated additions frequent
+            long value = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(3)) {
+                case 0 -> assertThat(set.add(value)).isEqualTo(expected.add(value));
+                case 1 -> assertThat(set.remove(value)).isEqualTo(expected.remove(value));
+                default -> assertThat(set.contains(value)).isEqualTo(expected.contains(value));
+            }
+            assertThat(set.size()).isEqualTo(expected.size());
+        }
+        Set<Long> actual = new HashSet<>();
+        set.forEach(actual::add);
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    /**
+     * Finds the keys with the same home slot
+     *
+     * @param tableSize is the size of the table
+     * @param home is the home slot
+     * @param count is the number of the keys
+     * @return the keys in ascending order
+     */
+    static long[] collidingKeys(int tableSize, int home, int count) {
+        long[] keys = new long[count];
+        int found = 0;
+        for (long key = 1; found < count; key++) {
+            if ((Hashing.mix(key) & (tableSize - 1)) == home) keys[found++] = key;
+        }
+        return keys;
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.intuit.task.manager.collections;
+
+import static com.intuit.task.manager.collections.LongHashSetTest.collidingKeys;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+
+public class LongObjectHashMapTest {
+
+    /**
+     * The table size of a map created for 16 entries
+     */
+    private static final int TABLE_SIZE = 32;
+
+    @Test
+    @DisplayName("Removing from the middle of a collision chain")
+    void collisionChain() {
+        long[] chain = collidingKeys(TABLE_SIZE, 5, 5);
+        LongObjectHashMap<String> map = new LongObjectHashMap<>(16);
+        for (long key : chain) assertThat(map.put(key, "v" + key)).isNull();
+        assertThat(map.put(chain[2], "replaced")).isEqualTo("v" + chain[2]);
+
+        // The entries after the hole keep their values
+        assertThat(map.remove(chain[2])).isEqualTo("replaced");
+        assertThat(map.remove(chain[2])).isNull();
+        assertThat(map.containsKey(chain[2])).isFalse();
+        assertThat(map.get(chain[2])).isNull();
+        for (long key : new long[] {chain[0], chain[1], chain[3], chain[4]}) assertThat(map.get(key)).isEqualTo("v" + key);
+        assertThat(map.size()).isEqualTo(4);
+
+        // Removing the head of the chain moves the rest back
+        assertThat(map.remove(chain[0])).isEqualTo("v" + chain[0]);
+        for (long key : new long[] {chain[1], chain[3], chain[4]}) assertThat(map.get(key)).isEqualTo("v" + key);
+    }
+
+    @Test
+    @DisplayName("Removing from a collision chain wrapping around the end of the table")
+    void wrappedChain() {
+        long[] chain = collidingKeys(TABLE_SIZE, TABLE_SIZE - 1, 4);
+        long[] other = collidingKeys(TABLE_SIZE, 1, 2);
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>(16);
+        for (long key : chain) map.put(key, -key);
+        for (long key : other) map.put(key, -key);
+
+        assertThat(map.remove(chain[1])).isEqualTo(-chain[1]);
+        for (long key : new long[] {chain[0], chain[2], chain[3], other[0], other[1]}) {
+            assertThat(map.get(key)).isEqualTo(-key);
+        }
+        assertThat(map.containsKey(chain[1])).isFalse();
+        assertThat(map.size()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Growing across several rehashes")
+    void growth() {
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+        for (long key = 1; key <= 10_000; key++) map.put(key * 7919, key);
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long key = 1; key <= 10_000; key++) assertThat(map.get(key * 7919)).isEqualTo(key);
+        assertThat(map.get(7918)).isNull();
+
+        List<Long> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        assertThat(values).hasSize(10_000).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Zero and negative keys")
+    void zeroAndNegative() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        assertThat(map.get(0)).isNull();
+        assertThat(map.containsKey(0)).isFalse();
+        assertThat(map.remove(0)).isNull();
+        assertThat(map.size()).isZero();
+
+        assertThat(map.put(0, "zero")).isNull();
+        assertThat(map.put(0, "again")).isEqualTo("zero");
+        map.put(-1, "minus one");
+        map.put(Long.MIN_VALUE, "min");
+        assertThat(map.size()).isEqualTo(3);
+        assertThat(map.get(0)).isEqualTo("again");
+        assertThat(map.get(-1)).isEqualTo("minus one");
+        assertThat(map.get(Long.MIN_VALUE)).isEqualTo("min");
+
+        // A null value is stored like any other
+        map.put(0, null);
+        assertThat(map.containsKey(0)).isTrue();
+        assertThat(map.size()).isEqualTo(3);
+        assertThat(map.remove(0)).isNull();
+        assertThat(map.containsKey(0)).isFalse();
+        assertThat(map.size()).isEqualTo(2);
+
+        map.clear();
+        assertThat(map.isEmpty()).isTrue();
+        assertThat(map.get(-1)).isNull();
+    }
+
+    @Test
+    @DisplayName("Behaving like a HashMap")
+    void randomized() {
+        Random random = new Random(42);
+        LongObjectHashMap<Integer> map = new LongObjectHashMap<>();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // A small range makes the removals and the replacements frequent
+            long key = random.nextInt(2_000) - 1_000;
+            switch (random.nextInt(3)) {
+                case 0 -> assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+                case 1 -> assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+                default -> {
+                    assertThat(map.get(key)).isEqualTo(expected.get(key));
+                    assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+                }
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        List<Integer> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        assertThat(values).containsExactlyInAnyOrderElementsOf(expected.values());
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.intuit.task.manager.core;
+
+import com.intuit.task.manager.dto.*;
+import com.intuit.task.manager.exceptions.*;
+import static org.assertj.core.api.Assertions.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.nio.file.Path;
+import java.time.*;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+public class TaskManagerTest {
+
+    private TaskManager manager;
+
+    @BeforeEach
+    void createManager() {
+        manager = TaskManager.builder().capacity(3).clock(new TickingClock()).build();
+    }
+
+    @Test
+    @DisplayName("Adding tasks with the three creating types")
+    void add() {
+        manager.add("first", CreatingType.NAIVE, PriorityType.LOW);
+        manager.add("second", CreatingType.NAIVE, PriorityType.HIGH);
+        manager.add("third", CreatingType.NAIVE, PriorityType.MEDIUM);
+        assertThatThrownBy(() -> manager.add("fourth", CreatingType.NAIVE, PriorityType.HIGH))
+                .isInstanceOf(MaximumCapacityExceededException.class);
+
+        ProcessRecord fifo = manager.add("fifo", CreatingType.FIFO, PriorityType.LOW);
+        assertThat(manager.list(SortingType.DATE)).extracting(ProcessRecord::task)
+                .containsExactly("second", "third", "fifo");
+
+        manager.add("priority", CreatingType.PRIORITY, PriorityType.MEDIUM);
+        assertThat(manager.list(SortingType.ID)).extracting(ProcessRecord::task)
+                .containsExactly("second", "third", "priority");
+        assertThatThrownBy(() -> manager.get(fifo.pid())).isInstanceOf(ProcessNotFoundException.class);
+        assertThatThrownBy(() -> manager.add("low", CreatingType.PRIORITY, PriorityType.MEDIUM))
+                .isInstanceOf(UnableToApplyPriorityOrderException.class);
+        assertThatThrownBy(() -> manager.add(null, CreatingType.FIFO, PriorityType.HIGH))
+                .isInstanceOf(NullPointerException.class);
+        assertThat(manager.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Listing and killing tasks")
+    void kill() {
+        ProcessRecord low = manager.add("low", CreatingType.NAIVE, PriorityType.LOW);
+        ProcessRecord high = manager.add("high", CreatingType.NAIVE, PriorityType.HIGH);
+        manager.add("medium", CreatingType.NAIVE, PriorityType.MEDIUM);
+        assertThat(manager.list(SortingType.PRIORITY)).extracting(ProcessRecord::priority)
+                .containsExactly(PriorityType.LOW, PriorityType.MEDIUM, PriorityType.HIGH);
+
+        assertThatThrownBy(() -> manager.kill(low.pid(), 100)).isInstanceOf(ProcessNotFoundException.class);
+        assertThat(manager.size()).isEqualTo(3);
+
+        assertThat(manager.kill(low.pid(), low.pid())).containsExactly(low);
+        assertThat(manager.killByPriority(PriorityType.HIGH)).containsExactly(high);
+        assertThat(manager.killAll()).hasSize(1);
+        assertThat(manager.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Changing the capacity")
+    void capacity() {
+        manager.add("first", CreatingType.NAIVE, PriorityType.HIGH);
+        manager.add("second", CreatingType.NAIVE, PriorityType.LOW);
+        manager.add("third", CreatingType.NAIVE, PriorityType.LOW);
+
+        assertThat(manager.setCapacity(1)).extracting(ProcessRecord::task).containsExactly("first", "second");
+        assertThat(manager.getCapacity()).isEqualTo(1);
+        assertThatThrownBy(() -> manager.add("fourth", CreatingType.NAIVE, PriorityType.LOW))
+                .isInstanceOf(MaximumCapacityExceededException.class)
+                .hasMessageContaining("1");
+        assertThatThrownBy(() -> manager.setCapacity(0)).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(manager.setCapacity(2)).isEmpty();
+        manager.add("fourth", CreatingType.NAIVE, PriorityType.LOW);
+        assertThat(manager.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Off-heap store: eviction, lookup and compaction")
+    void offHeapStore() {
+        OffHeapProcessStore store = new OffHeapProcessStore(16);
+        TaskManager offHeap = TaskManager.builder().capacity(100).store(store).clock(new TickingClock()).build();
+        PriorityType[] priorities = PriorityType.values();
+        for (int i = 0; i < 5000; i++) {
+            offHeap.add("задача " + i, CreatingType.FIFO, priorities[i % priorities.length]);
+        }
+        assertThat(offHeap.size()).isEqualTo(100);
+        assertThat(offHeap.list(SortingType.DATE)).extracting(ProcessRecord::task)
+                .startsWith("задача 4900").endsWith("задача 4999");
+        assertThat(offHeap.list(SortingType.ID)).isEqualTo(offHeap.list(SortingType.DATE));
+        assertThat(offHeap.list(SortingType.PRIORITY)).extracting(ProcessRecord::priority).isSorted();
+        assertThat(offHeap.get(5000).task()).isEqualTo("задача 4999");
+        assertThatThrownBy(() -> offHeap.get(4900)).isInstanceOf(ProcessNotFoundException.class);
+
+        ProcessRecord high = offHeap.add("high", CreatingType.PRIORITY, PriorityType.HIGH);
+        assertThat(offHeap.get(high.pid())).isEqualTo(high);
+        assertThat(offHeap.list(SortingType.DATE)).extracting(ProcessRecord::pid).doesNotContain(4901L);
+
+        assertThat(offHeap.killByPriority(PriorityType.LOW)).hasSize(33);
+        assertThat(offHeap.killAll()).hasSize(67);
+        assertThat(store.getReservedBytes()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Off-heap store: the clock is set back")
+    void offHeapClockSetBack() {
+        TickingClock clock = new TickingClock();
+        TaskManager offHeap = TaskManager.builder().capacity(2).store(new OffHeapProcessStore(16)).clock(clock).build();
+        offHeap.add("first", CreatingType.NAIVE, PriorityType.LOW);
+        ProcessRecord second = offHeap.add("second", CreatingType.NAIVE, PriorityType.LOW);
+
+        clock.setBack(Duration.ofHours(1));
+        ProcessRecord third = offHeap.add("third", CreatingType.FIFO, PriorityType.LOW);
+        assertThat(third.created()).isEqualTo(second.created());
+        assertThat(offHeap.list(SortingType.DATE)).extracting(ProcessRecord::task).containsExactly("second", "third");
+    }
+
+    @Test
+    @DisplayName("A failed insertion doesn't evict a process")
+    void failedInsertion() {
+        TaskManager failing = TaskManager.builder().capacity(1).clock(new TickingClock()).store(new InMemoryProcessStore() {
+            @Override
+            public ProcessRecord insert(ProcessRecord process) {
+                if (process.task().equals("broken")) throw new IllegalStateException("The store is broken");
+                return super.insert(process);
+            }
+        }).build();
+        failing.add("first", CreatingType.NAIVE, PriorityType.LOW);
+        long sequence = failing.getSequence();
+
+        assertThatThrownBy(() -> failing.add("broken", CreatingType.FIFO, PriorityType.LOW))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(failing.list(SortingType.DATE)).extracting(ProcessRecord::task).containsExactly("first");
+        assertThat(failing.getSequence()).isEqualTo(sequence);
+    }
+
+    @Test
+    @DisplayName("Dictionary-encoded titles")
+    void titleDictionary() {
+        for (ProcessStore<ProcessRecord> store : List.of(new InMemoryProcessStore(true), new OffHeapProcessStore(16, true))) {
+            TaskManager dictionary = TaskManager.builder().capacity(1000).store(store).clock(new TickingClock()).build();
+            for (int i = 0; i < 3000; i++) {
+                dictionary.add("reindex-shard-" + i % 8, CreatingType.FIFO, PriorityType.values()[i % 3]);
+            }
+            List<ProcessRecord> processes = dictionary.list(SortingType.ID);
+            assertThat(processes).hasSize(1000);
+            assertThat(processes.get(0).task()).isEqualTo("reindex-shard-0");
+            assertThat(processes.get(8).task()).isSameAs(processes.get(0).task());
+
+            // The titles of the removed processes are released and can be stored again
+            dictionary.killAll();
+            ProcessRecord added = dictionary.add("nightly-sync", CreatingType.NAIVE, PriorityType.HIGH);
+            assertThat(dictionary.get(added.pid()).task()).isEqualTo("nightly-sync");
+        }
+    }
+
+    @Test
+    @DisplayName("Warm-standby replication over a Unix domain socket")
+    void replication(@TempDir Path directory) throws Exception {
+        Path socket = directory.resolve("task-manager.sock");
+        manager.add("before", CreatingType.NAIVE, PriorityType.LOW);
+        ProcessRecord killed = manager.add("killed", CreatingType.NAIVE, PriorityType.HIGH);
+        manager.kill(killed.pid());
+
+        try (ReplicationPrimary primary = new ReplicationPrimary(manager, socket)) {
+            ReplicationStandby standby = new ReplicationStandby(socket, () -> new OffHeapProcessStore(16));
+            await(() -> standby.isConnected() && standby.getAppliedSequence() == manager.getSequence());
+            assertThat(standby.getTaskManager().list(SortingType.ID)).extracting(ProcessRecord::pid).containsExactly(1L);
+
+            // The evictions and the change of the capacity follow the additions in order
+            manager.add("first", CreatingType.NAIVE, PriorityType.HIGH);
+            manager.add("second", CreatingType.NAIVE, PriorityType.MEDIUM);
+            manager.add("fifo", CreatingType.FIFO, PriorityType.LOW);
+            manager.setCapacity(2);
+            await(() -> standby.getAppliedSequence() == manager.getSequence());
+            assertThat(standby.getTaskManager().list(SortingType.ID)).extracting(ProcessRecord::pid, ProcessRecord::task)
+                    .containsExactlyElementsOf(manager.list(SortingType.ID).stream()
+                            .map(process -> tuple(process.pid(), process.task())).toList());
+            assertThat(standby.getLag()).isNotNull();
+            assertThat(standby.getResyncs()).isZero();
+
+            primary.close();
+            await(() -> !standby.isConnected());
+            await(() -> standby.getResyncs() > 0);
+            TaskManager promoted = standby.promote();
+            assertThat(promoted.getCapacity()).isEqualTo(2);
+            ProcessRecord next = promoted.add("after", CreatingType.FIFO, PriorityType.LOW);
+            assertThat(next.pid()).isEqualTo(manager.list(SortingType.ID).get(1).pid() + 1);
+            assertThat(promoted.list(SortingType.DATE)).extracting(ProcessRecord::task).containsExactly("fifo", "after");
+        }
+    }
+
+    @Test
+    @DisplayName("A promoted standby doesn't assign the identifiers of the removed processes again")
+    void promotedNumbering(@TempDir Path directory) throws Exception {
+        Path socket = directory.resolve("task-manager.sock");
+        manager.add("first", CreatingType.NAIVE, PriorityType.LOW);
+        ProcessRecord killed = manager.add("killed", CreatingType.NAIVE, PriorityType.LOW);
+        manager.kill(killed.pid());
+
+        try (ReplicationPrimary primary = new ReplicationPrimary(manager, socket)) {
+            ReplicationStandby standby = new ReplicationStandby(socket);
+            await(() -> standby.isConnected() && standby.getAppliedSequence() == manager.getSequence());
+            TaskManager promoted = standby.promote();
+            assertThat(promoted.list(SortingType.ID)).extracting(ProcessRecord::pid).containsExactly(1L);
+            assertThat(promoted.add("next", CreatingType.NAIVE, PriorityType.LOW).pid()).isEqualTo(killed.pid() + 1);
+            assertThat(manager.add("next", CreatingType.NAIVE, PriorityType.LOW).pid()).isEqualTo(killed.pid() + 1);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 250 && !condition.getAsBoolean(); i++) Thread.sleep(20);
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * A clock that moves forward by a millisecond on every call, so that each process has its own creation time
+     */
+    private static class TickingClock extends Clock {
+
+        private Instant now = Instant.parse("2022-01-01T00:00:00Z");
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            now = now.plusMillis(1);
+            return now;
+        }
+
+        void setBack(Duration duration) {
+            now = now.minus(duration);
+        }
+
+    }
+
+}